@@ -0,0 +1,128 @@
+/*
+ * Copyright (C) 2008-2025 Mycila (mathieu.carbou@gmail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.mycila.maven.plugin.license;
+
+import org.apache.maven.plugin.testing.stubs.MavenProjectStub;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * End-to-end {@code license:check} and {@code license:format} over a {@link SyntheticTree}.
+ * Each invocation processes the whole tree, so a single shot is measured per iteration.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+@Fork(1)
+public class LicenseMojoBenchmark {
+
+  @State(Scope.Benchmark)
+  public static class Tree {
+
+    @Param({"10000"})
+    public int files;
+
+    Path basedir;
+
+    @Setup(Level.Trial)
+    public void create() throws Exception {
+      basedir = Files.createTempDirectory("license-benchmark");
+      SyntheticTree.create(basedir, files);
+      configure(new LicenseFormatMojo(), basedir).execute();
+    }
+
+    @TearDown(Level.Trial)
+    public void delete() throws IOException {
+      deleteRecursively(basedir);
+    }
+  }
+
+  @State(Scope.Benchmark)
+  public static class FreshTree {
+
+    @Param({"10000"})
+    public int files;
+
+    Path basedir;
+
+    @Setup(Level.Iteration)
+    public void create() throws IOException {
+      basedir = Files.createTempDirectory("license-benchmark");
+      SyntheticTree.create(basedir, files);
+    }
+
+    @TearDown(Level.Iteration)
+    public void delete() throws IOException {
+      deleteRecursively(basedir);
+    }
+  }
+
+  @Benchmark
+  public LicenseCheckMojo check(Tree tree) throws Exception {
+    LicenseCheckMojo check = configure(new LicenseCheckMojo(), tree.basedir);
+    check.execute();
+    return check;
+  }
+
+  @Benchmark
+  public LicenseFormatMojo format(FreshTree tree) throws Exception {
+    LicenseFormatMojo format = configure(new LicenseFormatMojo(), tree.basedir);
+    format.execute();
+    return format;
+  }
+
+  private static <T extends AbstractLicenseMojo> T configure(T mojo, Path basedir) {
+    Map<String, String> properties = new HashMap<>();
+    properties.put("year", "2008-2025");
+    properties.put("owner", "Mycila");
+    properties.put("email", "mathieu.carbou@gmail.com");
+    mojo.defaultBasedir = basedir.toFile();
+    mojo.legacyConfigInlineHeader = SyntheticTree.HEADER;
+    mojo.defaultProperties = properties;
+    mojo.project = new MavenProjectStub();
+    mojo.quiet = true;
+    return mojo;
+  }
+
+  private static void deleteRecursively(Path dir) throws IOException {
+    try (Stream<Path> paths = Files.walk(dir)) {
+      for (Path path : (Iterable<Path>) paths.sorted(Comparator.reverseOrder())::iterator) {
+        Files.delete(path);
+      }
+    }
+  }
+}
@@ -0,0 +1,114 @@
+/*
+ * Copyright (C) 2008-2025 Mycila (mathieu.carbou@gmail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.mycila.maven.plugin.license;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Generates a deterministic source tree of files of mixed document types, without license headers.
+ * Generating the same number of files always produces the same paths and contents, so that benchmark results only
+ * depend on the code being measured.
+ */
+public final class SyntheticTree {
+
+  /**
+   * The header used by the benchmarks, the same as the one of this project.
+   */
+  public static final String HEADER = "Copyright (C) ${year} ${owner} (${email})\n"
+      + "\n"
+      + "Licensed under the Apache License, Version 2.0 (the \"License\").\n"
+      + "You may not use this file except in compliance with the License.\n"
+      + "You may obtain a copy of the License at\n"
+      + "\n"
+      + "        https://www.apache.org/licenses/LICENSE-2.0\n"
+      + "\n"
+      + "Unless required by applicable law or agreed to in writing, software\n"
+      + "distributed under the License is distributed on an \"AS IS\" BASIS,\n"
+      + "WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.\n"
+      + "See the License for the specific language governing permissions and\n"
+      + "limitations under the License.\n";
+
+  private static final String[][] TYPES = {
+      {"java", "package bench;\n\npublic class Type%d {\n", "  int field%d = %d;\n", "}\n"},
+      {"xml", "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n<root id=\"%d\">\n", "  <item index=\"%d\">%d</item>\n", "</root>\n"},
+      {"properties", "# file %d\n", "key%d=value%d\n", ""},
+      {"sh", "#!/bin/sh\necho %d\n", "VAR%d=%d\n", "exit 0\n"},
+      {"js", "'use strict';\n// %d\n", "const v%d = %d;\n", "module.exports = {};\n"},
+      {"py", "#!/usr/bin/env python\n# %d\n", "v%d = %d\n", ""},
+      {"css", "/* %d */\n", ".c%d { width: %dpx; }\n", ""},
+      {"sql", "-- %d\n", "INSERT INTO t VALUES (%d, %d);\n", ""},
+      {"html", "<!DOCTYPE html>\n<html lang=\"en\" id=\"%d\">\n", "<p id=\"p%d\">%d</p>\n", "</html>\n"},
+      {"txt", "Text file %d\n", "line %d: %d\n", ""},
+  };
+
+  /**
+   * One file out of this number is large. It is prime with the number of types, so that large files are of all types.
+   */
+  private static final int LARGE_FILE_INTERVAL = 47;
+  private static final int LARGE_FILE_LINES = 10_000;
+
+  private SyntheticTree() {
+  }
+
+  /**
+   * Writes the given number of files under the given directory, spread over nested sub-directories.
+   *
+   * @return the paths of the files, relative to the directory, in creation order
+   */
+  public static List<String> create(Path dir, int files) throws IOException {
+    List<String> paths = new ArrayList<>(files);
+    for (int i = 0; i < files; i++) {
+      String path = path(i);
+      Path file = dir.resolve(path);
+      Files.createDirectories(file.getParent());
+      Files.write(file, content(TYPES[i % TYPES.length], i).getBytes(UTF_8));
+      paths.add(path);
+    }
+    return paths;
+  }
+
+  /**
+   * @return the names of the files {@link #create(Path, int)} would write, without writing them
+   */
+  public static List<String> names(int files) {
+    List<String> names = new ArrayList<>(files);
+    for (int i = 0; i < files; i++) {
+      names.add(path(i));
+    }
+    return names;
+  }
+
+  private static String path(int index) {
+    return "module" + (index % 10) + "/pkg" + (index / 10 % 50) + "/file" + index + "." + TYPES[index % TYPES.length][0];
+  }
+
+  private static String content(String[] type, int index) {
+    StringBuilder sb = new StringBuilder(String.format(type[1], index));
+    // bodies from 20 to 219 lines, which fit in the first 8 KiB chunk read by FileContent, except for one file in
+    // LARGE_FILE_INTERVAL, of every type, whose body of over 100 KiB spans several chunks
+    int lines = index % LARGE_FILE_INTERVAL == 0 ? LARGE_FILE_LINES : 20 + index % 200;
+    for (int line = 0; line < lines; line++) {
+      sb.append(String.format(type[2], line, index + line));
+    }
+    return sb.append(type[3]).toString();
+  }
+}
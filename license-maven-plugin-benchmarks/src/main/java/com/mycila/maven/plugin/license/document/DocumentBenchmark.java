@@ -0,0 +1,103 @@
+/*
+ * Copyright (C) 2008-2025 Mycila (mathieu.carbou@gmail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.mycila.maven.plugin.license.document;
+
+import com.mycila.maven.plugin.license.SyntheticTree;
+import com.mycila.maven.plugin.license.header.HeaderDefinition;
+import com.mycila.maven.plugin.license.header.HeaderType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.File;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Property placeholder resolution and document type lookup, both done once per processed file.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DocumentBenchmark {
+
+  private final PropertyPlaceholderResolver resolver = new PropertyPlaceholderResolver();
+  private Map<String, String> properties;
+  private DocumentFactory factory;
+  private List<String> files;
+
+  @Setup
+  public void setup() {
+    // about as many properties as the mojos give to each document: project, system and environment properties
+    properties = new HashMap<>();
+    for (int i = 0; i < 100; i++) {
+      properties.put("property." + i, "value " + i);
+    }
+    properties.put("year", "2008-2025");
+    properties.put("owner", "Mycila");
+    properties.put("email", "mathieu.carbou@gmail.com");
+    properties.put("project.inceptionYear", "2008");
+
+    // same mapping as the mojos build with the default configuration: unknown files first, then the defaults
+    Map<String, String> mapping = new LinkedHashMap<>();
+    mapping.put(DocumentType.UNKNOWN.getExtension(), DocumentType.UNKNOWN.getDefaultHeaderTypeName());
+    for (Map.Entry<String, String> entry : DocumentType.defaultMapping().entrySet()) {
+      mapping.putIfAbsent(entry.getKey(), entry.getValue());
+    }
+    Map<String, HeaderDefinition> definitions = HeaderType.defaultDefinitions();
+    factory = new DocumentFactory(new File("."), mapping, definitions, UTF_8, new String[]{"copyright"},
+        d -> Collections.emptyMap());
+    files = SyntheticTree.names(1000);
+  }
+
+  @Benchmark
+  public String replacePlaceholders() {
+    return resolver.replacePlaceholders(SyntheticTree.HEADER, properties);
+  }
+
+  @Benchmark
+  public String replacePlaceholdersWithDefaults() {
+    return resolver.replacePlaceholders(
+        "Copyright (C) ${project.inceptionYear}-${currentYear:2025} ${owner} (${contact:${email}})", properties);
+  }
+
+  /**
+   * Creates the documents of 1000 files of mixed types.
+   */
+  @Benchmark
+  public void createDocuments(Blackhole blackhole) {
+    for (String file : files) {
+      blackhole.consume(factory.createDocuments(file));
+    }
+  }
+}
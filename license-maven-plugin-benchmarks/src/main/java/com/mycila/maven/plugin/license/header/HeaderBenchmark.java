@@ -0,0 +1,120 @@
+/*
+ * Copyright (C) 2008-2025 Mycila (mathieu.carbou@gmail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.mycila.maven.plugin.license.header;
+
+import com.mycila.maven.plugin.license.HeaderSection;
+import com.mycila.maven.plugin.license.util.FileContent;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Header detection and comparison, on a file starting with the rendered header followed by 200 lines of code.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class HeaderBenchmark {
+
+  private static final String LICENSE = "Licensed under the Apache License, Version 2.0 (the \"License\").\n"
+      + "You may not use this file except in compliance with the License.\n"
+      + "You may obtain a copy of the License at\n"
+      + "\n"
+      + "        https://www.apache.org/licenses/LICENSE-2.0\n"
+      + "\n"
+      + "Unless required by applicable law or agreed to in writing, software\n"
+      + "distributed under the License is distributed on an \"AS IS\" BASIS,\n"
+      + "WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.\n"
+      + "See the License for the specific language governing permissions and\n"
+      + "limitations under the License.\n";
+
+  private static final String[] KEYWORDS = {"copyright"};
+
+  @Param({"JAVADOC_STYLE", "XML_STYLE", "SCRIPT_STYLE"})
+  public HeaderType headerType;
+
+  private HeaderDefinition definition;
+  private Header header;
+  private Header headerWithSections;
+  private String fileHeader;
+  private String fileHeaderWithOtherCopyright;
+  private File file;
+
+  @Setup
+  public void setup() throws IOException {
+    definition = headerType.getDefinition();
+    header = new Header(new HeaderSource.LiteralHeaderSource("Copyright (C) 2008 Mycila\n\n" + LICENSE), null);
+
+    HeaderSection section = new HeaderSection();
+    section.setKey("COPYRIGHT_SECTION");
+    section.setDefaultValue("Copyright (C) 2008 Mycila");
+    section.setEnsureMatch("Copyright \\(C\\) \\d{4} .*");
+    headerWithSections = new Header(new HeaderSource.LiteralHeaderSource("COPYRIGHT_SECTION\n\n" + LICENSE),
+        new HeaderSection[]{section});
+
+    fileHeader = header.buildForDefinition(definition, true);
+    fileHeaderWithOtherCopyright = new Header(
+        new HeaderSource.LiteralHeaderSource("Copyright (C) 2025 Someone Else\n\n" + LICENSE), null)
+        .buildForDefinition(definition, true);
+
+    StringBuilder content = new StringBuilder(fileHeader);
+    for (int i = 0; i < 200; i++) {
+      content.append("line ").append(i).append('\n');
+    }
+    file = File.createTempFile("header-benchmark", ".txt");
+    Files.write(file.toPath(), content.toString().getBytes(UTF_8));
+  }
+
+  @TearDown
+  public void tearDown() throws IOException {
+    Files.delete(file.toPath());
+  }
+
+  @Benchmark
+  public int parseHeader() {
+    HeaderParser parser = new HeaderParser(new FileContent(file, UTF_8), definition, KEYWORDS);
+    return parser.getEndPosition();
+  }
+
+  @Benchmark
+  public boolean isMatchForText() {
+    return header.isMatchForText(fileHeader, definition, true);
+  }
+
+  @Benchmark
+  public boolean isMatchForTextWithSections() {
+    return headerWithSections.isMatchForText(fileHeaderWithOtherCopyright, definition, true);
+  }
+}
@@ -24,6 +24,7 @@ import java.time.Instant;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Set;
 
 import static java.time.ZoneOffset.UTC;
 
@@ -38,6 +39,11 @@ public class CopyrightRangeProvider implements PropertiesProvider {
   public static final String COPYRIGHT_YEARS_KEY = "license.fs.copyrightYears";
   public static final String INCEPTION_YEAR_KEY = "project.inceptionYear";
 
+  @Override
+  public Set<String> getPropertyKeys() {
+    return Set.of(COPYRIGHT_LAST_YEAR_KEY, COPYRIGHT_YEARS_KEY);
+  }
+
   /**
    * Returns an unmodifiable map containing the following entries, whose values are set based on inspecting the filesystem.
    *
@@ -0,0 +1,149 @@
+/*
+ * Copyright (C) 2008-2025 Mycila (mathieu.carbou@gmail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.mycila.maven.plugin.license.git;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.maven.plugin.MojoExecutionException;
+import org.eclipse.jgit.api.DiffCommand;
+import org.eclipse.jgit.api.Git;
+import org.eclipse.jgit.api.Status;
+import org.eclipse.jgit.api.StatusCommand;
+import org.eclipse.jgit.api.errors.GitAPIException;
+import org.eclipse.jgit.diff.DiffEntry;
+import org.eclipse.jgit.dircache.DirCacheIterator;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.ObjectReader;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.storage.file.FileRepositoryBuilder;
+import org.eclipse.jgit.treewalk.CanonicalTreeParser;
+import org.eclipse.jgit.treewalk.filter.PathFilter;
+
+import com.mycila.maven.plugin.license.AbstractLicenseMojo;
+import com.mycila.maven.plugin.license.FileSelectionProvider;
+
+/**
+ * An implementation of {@link FileSelectionProvider} restricting the files to the ones which changed since the git
+ * revision configured with {@value #CHANGED_SINCE_KEY}: the files added or modified between this revision and the
+ * working tree, including staged and untracked files but not ignored ones.
+ */
+public class ChangedFilesSelectionProvider implements FileSelectionProvider {
+
+  public static final String CHANGED_SINCE_KEY = "license.git.changedSince";
+
+  @Override
+  public Collection<String> getCandidateFiles(AbstractLicenseMojo mojo, Map<String, String> currentProperties,
+                                              File basedir) throws MojoExecutionException {
+    String revision = currentProperties.get(CHANGED_SINCE_KEY);
+    if (revision == null || revision.trim().isEmpty()) {
+      return null;
+    }
+    revision = revision.trim();
+    FileRepositoryBuilder builder = new FileRepositoryBuilder().findGitDir(basedir);
+    if (builder.getGitDir() == null) {
+      throw new MojoExecutionException("'" + CHANGED_SINCE_KEY + "' is set but " + basedir + " is not in a git repository");
+    }
+    try (Repository repository = builder.build()) {
+      Set<String> files = getChangedFiles(repository, revision, basedir);
+      mojo.info("%d files changed since %s in %s", files.size(), revision, basedir);
+      return files;
+    } catch (IOException | GitAPIException e) {
+      throw new MojoExecutionException("Unable to list the files changed since " + revision + ": " + e.getMessage(), e);
+    }
+  }
+
+  /**
+   * @return the paths of the files added or modified since {@code revision}, relative to {@code basedir}
+   */
+  static Set<String> getChangedFiles(Repository repository, String revision, File basedir)
+      throws IOException, GitAPIException, MojoExecutionException {
+    ObjectId tree = repository.resolve(revision + "^{tree}");
+    if (tree == null) {
+      throw new MojoExecutionException("Unable to resolve git revision '" + revision + "' set in '" + CHANGED_SINCE_KEY + "'");
+    }
+    String scope = getScope(repository, basedir);
+
+    Set<String> changed = new HashSet<>();
+    try (Git git = new Git(repository); ObjectReader reader = repository.newObjectReader()) {
+      // committed and staged changes
+      CanonicalTreeParser oldTree = new CanonicalTreeParser();
+      oldTree.reset(reader, tree);
+      DiffCommand diff = git.diff()
+          .setOldTree(oldTree)
+          .setNewTree(new DirCacheIterator(repository.readDirCache()))
+          .setShowNameAndStatusOnly(true);
+      if (!scope.isEmpty()) {
+        diff.setPathFilter(PathFilter.create(scope));
+      }
+      for (DiffEntry entry : diff.call()) {
+        if (entry.getChangeType() != DiffEntry.ChangeType.DELETE) {
+          changed.add(entry.getNewPath());
+        }
+      }
+
+      // changes not staged yet
+      StatusCommand statusCommand = git.status();
+      if (!scope.isEmpty()) {
+        statusCommand.addPath(scope);
+      }
+      Status status = statusCommand.call();
+      changed.addAll(status.getModified());
+      changed.addAll(status.getUntracked());
+      changed.addAll(status.getConflicting());
+    }
+
+    return relativize(changed, scope);
+  }
+
+  /**
+   * @return the path of {@code basedir} relative to the working tree root, delimited by {@code '/'}, or an empty
+   * string if it is the root
+   * @throws MojoExecutionException if {@code basedir} is not in the working tree
+   */
+  static String getScope(Repository repository, File basedir) throws MojoExecutionException {
+    Path root = repository.getWorkTree().toPath().toAbsolutePath().normalize();
+    Path dir = basedir.toPath().toAbsolutePath().normalize();
+    if (!dir.startsWith(root)) {
+      throw new MojoExecutionException(basedir + " is not in the working tree of " + root);
+    }
+    return root.relativize(dir).toString().replace(File.separatorChar, '/');
+  }
+
+  /**
+   * @param paths paths relative to the working tree root
+   * @param scope the base directory, as returned by {@link #getScope(Repository, File)}
+   * @return the paths below the base directory, relative to it
+   */
+  static Set<String> relativize(Set<String> paths, String scope) {
+    if (scope.isEmpty()) {
+      return paths;
+    }
+    String prefix = scope + "/";
+    Set<String> files = new HashSet<>();
+    for (String path : paths) {
+      if (path.startsWith(prefix)) {
+        files.add(path.substring(prefix.length()));
+      }
+    }
+    return files;
+  }
+}
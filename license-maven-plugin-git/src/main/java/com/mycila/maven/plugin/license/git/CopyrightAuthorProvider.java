@@ -27,6 +27,7 @@ import java.io.IOException;
 import java.io.UncheckedIOException;
 import java.util.Collections;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * An implementation of {@link PropertiesProvider} that adds {@value
@@ -40,12 +41,32 @@ public class CopyrightAuthorProvider implements PropertiesProvider {
 
   private GitLookup gitLookup;
 
+  @Override
+  public Set<String> getPropertyKeys() {
+    return Set.of(COPYRIGHT_CREATION_AUTHOR_NAME_KEY, COPYRIGHT_CREATION_AUTHOR_EMAIL_KEY);
+  }
+
   @Override
   public void init(AbstractLicenseMojo mojo, Map<String, String> currentProperties) {
     gitLookup = GitLookup.create(mojo.defaultBasedir, currentProperties);
+    checkShallow(mojo, gitLookup, true);
+  }
+
+  /**
+   * Only opens the repository to fail or skip the build if it is shallow, without warning since no property is used.
+   */
+  @Override
+  public void checkEnvironment(AbstractLicenseMojo mojo, Map<String, String> currentProperties) {
+    if (mojo.skipOnShallow || mojo.failOnShallow) {
+      try (GitLookup lookup = GitLookup.create(mojo.defaultBasedir, currentProperties)) {
+        checkShallow(mojo, lookup, false);
+      }
+    }
+  }
 
+  private static void checkShallow(AbstractLicenseMojo mojo, GitLookup gitLookup, boolean warn) {
     if (gitLookup.isShallowRepository()) {
-      if (mojo.warnIfShallow) {
+      if (warn && mojo.warnIfShallow) {
         mojo.warn("Shallow git repository detected. Author property values may not be accurate.");
       }
       if (mojo.skipOnShallow) {
@@ -18,6 +18,7 @@ package com.mycila.maven.plugin.license.git;
 import java.io.IOException;
 import java.io.UncheckedIOException;
 import java.util.Map;
+import java.util.Set;
 
 import org.eclipse.jgit.api.errors.GitAPIException;
 
@@ -44,12 +45,32 @@ public class CopyrightRangeProvider implements PropertiesProvider {
 
   private GitLookup gitLookup;
 
+  @Override
+  public Set<String> getPropertyKeys() {
+    return Set.of(COPYRIGHT_LAST_YEAR_KEY, COPYRIGHT_CREATION_YEAR_KEY, COPYRIGHT_EXISTENCE_YEARS_KEY, COPYRIGHT_YEARS_KEY);
+  }
+
   @Override
   public void init(AbstractLicenseMojo mojo, Map<String, String> currentProperties) {
     gitLookup = GitLookup.create(mojo.defaultBasedir, currentProperties);
+    checkShallow(mojo, gitLookup, true);
+  }
+
+  /**
+   * Only opens the repository to fail or skip the build if it is shallow, without warning since no property is used.
+   */
+  @Override
+  public void checkEnvironment(AbstractLicenseMojo mojo, Map<String, String> currentProperties) {
+    if (mojo.skipOnShallow || mojo.failOnShallow) {
+      try (GitLookup lookup = GitLookup.create(mojo.defaultBasedir, currentProperties)) {
+        checkShallow(mojo, lookup, false);
+      }
+    }
+  }
 
+  private static void checkShallow(AbstractLicenseMojo mojo, GitLookup gitLookup, boolean warn) {
     if (gitLookup.isShallowRepository()) {
-      if (mojo.warnIfShallow) {
+      if (warn && mojo.warnIfShallow) {
         mojo.warn("Shallow git repository detected. Year property values may not be accurate.");
       }
       if (mojo.skipOnShallow) {
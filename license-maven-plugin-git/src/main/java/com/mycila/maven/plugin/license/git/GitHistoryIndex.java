@@ -0,0 +1,558 @@
+/*
+ * Copyright (C) 2008-2025 Mycila (mathieu.carbou@gmail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.mycila.maven.plugin.license.git;
+
+import org.eclipse.jgit.errors.IncorrectObjectTypeException;
+import org.eclipse.jgit.errors.MissingObjectException;
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.PersonIdent;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.revwalk.RevCommit;
+import org.eclipse.jgit.revwalk.RevWalk;
+import org.eclipse.jgit.treewalk.TreeWalk;
+import org.eclipse.jgit.treewalk.filter.TreeFilter;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.ToIntFunction;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * An index of the history of every path of a git repository, built by walking the history of {@code HEAD} only once
+ * and diffing the tree of each commit against the trees of its parents.
+ * <p>
+ * For each path, the index records the same information {@link GitLookup} would otherwise compute by walking the
+ * history once per file: the year of the last change, the year of creation and the author of the creation commit.
+ * The same rules apply: only the {@code maxCommitsLookup} most recent commits touching a path are considered, the
+ * commits to ignore are skipped when computing the year of the last change but not for the creation, and a merge
+ * commit only touches a path if it differs from all of its parents.
+ * <p>
+ * The history of each path is also simplified the way the {@link org.eclipse.jgit.revwalk.TreeRevFilter} of a walk
+ * restricted to that path simplifies it: when a merge leaves the path as it is in one of its parents, only this parent
+ * is followed for that path, so that the commits of a merged branch whose changes to the path were discarded by the
+ * merge are not counted. Since the index walks the history of all paths at once, it keeps, for each commit still to
+ * walk, the set of paths whose simplified history goes through it.
+ * <p>
+ * Paths are tracked the way the {@link org.eclipse.jgit.revwalk.FollowFilter} based walk of {@link GitLookup}
+ * tracks them: this walk is restricted to the current path by a {@link org.eclipse.jgit.treewalk.filter.PathFilter},
+ * so the history of a moved file starts at the commit that moved it, and the index gives the same result.
+ * <p>
+ * The index can be written to a file along with the {@code HEAD} it was built from, and later updated by only walking
+ * the commits added since.
+ */
+final class GitHistoryIndex {
+
+  private static final String FORMAT = "license-maven-plugin-git/history-index/1";
+  private static final int UNBOUNDED = Integer.MAX_VALUE;
+
+  private final ObjectId head;
+  private final int checkCommitsCount;
+  private final Map<String, PathHistory> histories;
+
+  private GitHistoryIndex(ObjectId head, int checkCommitsCount, Map<String, PathHistory> histories) {
+    this.head = head;
+    this.checkCommitsCount = checkCommitsCount;
+    this.histories = histories;
+  }
+
+  /**
+   * Walks the history of {@code HEAD} of the given repository and builds the index of all the paths found in it.
+   * <p>
+   * When a {@code previous} index is given and its {@code HEAD} is an ancestor of the current {@code HEAD}, only the
+   * commits added since are walked, and their changes are merged into the previous index, which is then returned.
+   * Otherwise, or if the added commits include a merge, the whole history is walked.
+   *
+   * @param repository        the repository to index
+   * @param previous          a previous index of the same repository built with the same settings, or {@code null}
+   * @param checkCommitsCount the number of historical commits, per path, to consider
+   * @param commitsToIgnore   the commits to ignore when computing the year of the last change of a path
+   * @param yearOfCommit      the function giving the year of a commit
+   * @return the index
+   * @throws IOException if unable to read the repository
+   */
+  static GitHistoryIndex build(Repository repository, GitHistoryIndex previous, int checkCommitsCount,
+                               Set<ObjectId> commitsToIgnore, ToIntFunction<RevCommit> yearOfCommit) throws IOException {
+    final ObjectId head = repository.resolve(Constants.HEAD);
+    if (head == null) {
+      return new GitHistoryIndex(null, checkCommitsCount, new HashMap<>());
+    }
+    if (previous != null && head.equals(previous.head) && previous.checkCommitsCount == checkCommitsCount) {
+      return previous;
+    }
+
+    final Map<String, PathHistory> histories = new HashMap<>();
+    final Map<RevCommit, FollowedPaths> followed = new HashMap<>();
+    try (RevWalk walk = new RevWalk(repository);
+         TreeWalk treeWalk = new TreeWalk(repository)) {
+      final RevCommit headCommit = walk.parseCommit(head);
+      final RevCommit previousHead = previous == null || previous.checkCommitsCount != checkCommitsCount
+          ? null : findAncestor(walk, previous.head, headCommit);
+      walk.reset();
+      walk.setRetainBody(false);
+      walk.markStart(headCommit);
+      if (previousHead != null) {
+        walk.markUninteresting(previousHead);
+      }
+      treeWalk.setRecursive(true);
+      treeWalk.setFilter(TreeFilter.ANY_DIFF);
+
+      for (RevCommit commit : walk) {
+        final RevCommit[] parents = commit.getParents();
+        if (previousHead != null && parents.length > 1) {
+          // a merged branch can bring commits older than the indexed ones, which a full walk orders by date among them
+          return build(repository, null, checkCommitsCount, commitsToIgnore, yearOfCommit);
+        }
+        final FollowedPaths state = followed.remove(commit);
+        final PathSet paths = state != null ? state.paths : commit == headCommit ? PathSet.ALL : PathSet.NONE;
+        if (paths.isEmpty()) {
+          // the commit is in the simplified history of no path
+          continue;
+        }
+        // the paths for which the parents are followed, unless a merge follows another one
+        final PathSet followedToParents = state == null ? paths : paths.minus(state.cut);
+        treeWalk.reset();
+        for (RevCommit parent : parents) {
+          walk.parseHeaders(parent);
+          treeWalk.addTree(parent.getTree());
+        }
+        treeWalk.addTree(commit.getTree());
+
+        final Set<String> notFollowedToFirstParent = new HashSet<>();
+        final List<Set<String>> followedToOtherParents = new ArrayList<>();
+        for (int i = 1; i < parents.length; i++) {
+          followedToOtherParents.add(new HashSet<>());
+        }
+        CommitInfo info = null;
+        while (treeWalk.next()) {
+          final String path = treeWalk.getPathString();
+          if (!paths.contains(path) || state != null && state.cut.contains(path)) {
+            // a cut commit does not have the path and is the root of its history, as a commit without parents
+            continue;
+          }
+          final int sameParent = parents.length > 1 ? findSameParent(treeWalk, parents.length) : -1;
+          if (sameParent < 0) {
+            if (info == null) {
+              walk.parseBody(commit);
+              info = new CommitInfo(commit, yearOfCommit, commitsToIgnore);
+              commit.disposeBody();
+            }
+            histories.computeIfAbsent(path, p -> new PathHistory()).record(info, checkCommitsCount);
+          }
+          if (parents.length > 1) {
+            simplifyMerge(treeWalk, path, sameParent, parents, notFollowedToFirstParent, followedToOtherParents,
+                followed);
+          }
+        }
+
+        if (parents.length > 0) {
+          follow(followed, parents[0], followedToParents.minus(notFollowedToFirstParent));
+        }
+        for (int i = 1; i < parents.length; i++) {
+          follow(followed, parents[i], PathSet.of(followedToOtherParents.get(i - 1)));
+        }
+      }
+
+      if (previousHead == null) {
+        return new GitHistoryIndex(head, checkCommitsCount, histories);
+      }
+    }
+
+    // without any merge, the walked commits all descend from the indexed ones and come first in a full walk
+    for (Map.Entry<String, PathHistory> entry : histories.entrySet()) {
+      previous.histories.merge(entry.getKey(), entry.getValue(),
+          (older, newer) -> newer.followedBy(older, checkCommitsCount));
+    }
+    return new GitHistoryIndex(head, checkCommitsCount, previous.histories);
+  }
+
+  /**
+   * @return the commit {@code ancestorId} if it still exists in the repository and is an ancestor of {@code head},
+   * {@code null} otherwise (e.g. after a rebase or a branch switch)
+   */
+  private static RevCommit findAncestor(RevWalk walk, ObjectId ancestorId, RevCommit head) throws IOException {
+    try {
+      RevCommit ancestor = walk.parseCommit(ancestorId);
+      return walk.isMergedInto(ancestor, head) ? ancestor : null;
+    } catch (MissingObjectException | IncorrectObjectTypeException e) {
+      return null;
+    }
+  }
+
+  /**
+   * Reads an index previously written with {@link #writeTo(Path, String)}.
+   *
+   * @param file        the file to read
+   * @param fingerprint the fingerprint of the settings the index must have been built with
+   * @return the index, or {@code null} if the file does not exist, cannot be read or was written with other settings
+   */
+  static GitHistoryIndex readFrom(Path file, String fingerprint) {
+    if (!Files.isRegularFile(file)) {
+      return null;
+    }
+    try (DataInputStream in = new DataInputStream(new BufferedInputStream(new GZIPInputStream(Files.newInputStream(file))))) {
+      if (!FORMAT.equals(in.readUTF()) || !fingerprint.equals(in.readUTF())) {
+        return null;
+      }
+      final ObjectId head = ObjectId.fromString(in.readUTF());
+      final int checkCommitsCount = in.readInt();
+
+      final CommitInfo[] commits = new CommitInfo[in.readInt()];
+      for (int i = 0; i < commits.length; i++) {
+        commits[i] = new CommitInfo(in.readInt(), in.readBoolean(), in.readUTF(), in.readUTF());
+      }
+
+      final int pathCount = in.readInt();
+      final Map<String, PathHistory> histories = new HashMap<>(pathCount * 4 / 3 + 1);
+      for (int i = 0; i < pathCount; i++) {
+        final String path = in.readUTF();
+        final PathHistory history = new PathHistory();
+        history.commitCount = in.readInt();
+        history.lastChangeYear = in.readInt();
+        history.creation = commits[in.readInt()];
+        if (checkCommitsCount != UNBOUNDED) {
+          final int size = in.readInt();
+          history.commits = new ArrayList<>(size);
+          for (int j = 0; j < size; j++) {
+            history.commits.add(commits[in.readInt()]);
+          }
+        }
+        histories.put(path, history);
+      }
+      return new GitHistoryIndex(head, checkCommitsCount, histories);
+    } catch (IOException | RuntimeException e) {
+      // a corrupted or truncated cache is simply rebuilt
+      return null;
+    }
+  }
+
+  /**
+   * Writes this index to the given file, so that it can be read back and updated by a later execution. The file is
+   * first written aside and then moved in place, so that a concurrent reader never sees a partial file.
+   *
+   * @param file        the file to write
+   * @param fingerprint the fingerprint of the settings this index was built with
+   * @throws IOException if unable to write the file
+   */
+  void writeTo(Path file, String fingerprint) throws IOException {
+    if (head == null) {
+      return;
+    }
+    final Map<CommitInfo, Integer> commitIndexes = new IdentityHashMap<>();
+    final List<CommitInfo> commits = new ArrayList<>();
+    for (PathHistory history : histories.values()) {
+      commitIndexes.computeIfAbsent(history.creation, c -> addAndGetIndex(commits, c));
+      if (history.commits != null) {
+        for (CommitInfo commit : history.commits) {
+          commitIndexes.computeIfAbsent(commit, c -> addAndGetIndex(commits, c));
+        }
+      }
+    }
+
+    final Path dir = file.toAbsolutePath().getParent();
+    Files.createDirectories(dir);
+    final Path tmp = Files.createTempFile(dir, file.getFileName().toString(), ".tmp");
+    try {
+      try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new GZIPOutputStream(Files.newOutputStream(tmp))))) {
+        out.writeUTF(FORMAT);
+        out.writeUTF(fingerprint);
+        out.writeUTF(head.name());
+        out.writeInt(checkCommitsCount);
+
+        out.writeInt(commits.size());
+        for (CommitInfo commit : commits) {
+          out.writeInt(commit.year);
+          out.writeBoolean(commit.ignored);
+          out.writeUTF(commit.authorName);
+          out.writeUTF(commit.authorEmail);
+        }
+
+        out.writeInt(histories.size());
+        for (Map.Entry<String, PathHistory> entry : histories.entrySet()) {
+          final PathHistory history = entry.getValue();
+          out.writeUTF(entry.getKey());
+          out.writeInt(history.commitCount);
+          out.writeInt(history.lastChangeYear);
+          out.writeInt(commitIndexes.get(history.creation));
+          if (checkCommitsCount != UNBOUNDED) {
+            out.writeInt(history.commits.size());
+            for (CommitInfo commit : history.commits) {
+              out.writeInt(commitIndexes.get(commit));
+            }
+          }
+        }
+      }
+      Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    } finally {
+      Files.deleteIfExists(tmp);
+    }
+  }
+
+  private static int addAndGetIndex(List<CommitInfo> commits, CommitInfo commit) {
+    commits.add(commit);
+    return commits.size() - 1;
+  }
+
+  /**
+   * A commit touches a path if the path differs from the same path in each of its parents. For a merge commit, this
+   * means that the merge result differs from every merged branch.
+   *
+   * @return the index of the first parent in which the current path of the tree walk is the same as in the commit,
+   * or {@code -1} if the commit touches the path
+   */
+  private static int findSameParent(TreeWalk treeWalk, int parentCount) {
+    for (int i = 0; i < parentCount; i++) {
+      if (treeWalk.getRawMode(i) == treeWalk.getRawMode(parentCount) && treeWalk.idEqual(i, parentCount)) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * Applies the rules of {@link org.eclipse.jgit.revwalk.TreeRevFilter} to a path of a merge commit: if the path is
+   * the same as in one of its parents, only the first such parent is followed for it, otherwise all of them are. The
+   * paths not walked by the tree walk are the same in all the parents, and only the first one is followed for them.
+   * A parent before the followed one which does not have the path is the root of its history, so its own parents
+   * are not followed for it.
+   */
+  private static void simplifyMerge(TreeWalk treeWalk, String path, int sameParent, RevCommit[] parents,
+                                    Set<String> notFollowedToFirstParent, List<Set<String>> followedToOtherParents,
+                                    Map<RevCommit, FollowedPaths> followed) {
+    final int end = sameParent < 0 ? parents.length : sameParent;
+    for (int i = 0; i < end; i++) {
+      if (treeWalk.getRawMode(i) == 0) {
+        followed.computeIfAbsent(parents[i], p -> new FollowedPaths()).cut.add(path);
+      }
+    }
+    if (sameParent > 0) {
+      notFollowedToFirstParent.add(path);
+      followedToOtherParents.get(sameParent - 1).add(path);
+    } else if (sameParent < 0) {
+      for (Set<String> paths : followedToOtherParents) {
+        paths.add(path);
+      }
+    }
+  }
+
+  private static void follow(Map<RevCommit, FollowedPaths> followed, RevCommit parent, PathSet paths) {
+    if (!paths.isEmpty()) {
+      FollowedPaths state = followed.computeIfAbsent(parent, p -> new FollowedPaths());
+      state.paths = state.paths.union(paths);
+    }
+  }
+
+  /**
+   * @param repoRelativePath the path relative to the working tree root, delimited by {@code '/'}
+   * @return the year of the last change of the path, or {@code 0} if the path is unknown to the history
+   */
+  int getYearOfLastChange(String repoRelativePath) {
+    PathHistory history = histories.get(repoRelativePath);
+    return history == null ? 0 : history.lastChangeYear;
+  }
+
+  /**
+   * @param repoRelativePath the path relative to the working tree root, delimited by {@code '/'}
+   * @return the year of creation of the path, or {@code 0} if the path is unknown to the history
+   */
+  int getYearOfCreation(String repoRelativePath) {
+    PathHistory history = histories.get(repoRelativePath);
+    return history == null ? 0 : history.creation.year;
+  }
+
+  /**
+   * @param repoRelativePath the path relative to the working tree root, delimited by {@code '/'}
+   * @return the name of the author who created the path, or an empty string if the path is unknown to the history
+   */
+  String getAuthorNameOfCreation(String repoRelativePath) {
+    PathHistory history = histories.get(repoRelativePath);
+    return history == null ? "" : history.creation.authorName;
+  }
+
+  /**
+   * @param repoRelativePath the path relative to the working tree root, delimited by {@code '/'}
+   * @return the email of the author who created the path, or an empty string if the path is unknown to the history
+   */
+  String getAuthorEmailOfCreation(String repoRelativePath) {
+    PathHistory history = histories.get(repoRelativePath);
+    return history == null ? "" : history.creation.authorEmail;
+  }
+
+  /**
+   * The paths whose simplified history goes through a commit still to walk, as given by the commits walked so far.
+   */
+  private static final class FollowedPaths {
+    private PathSet paths = PathSet.NONE;
+    /**
+     * The paths for which the parents of the commit are not followed, even if the commit itself is.
+     */
+    private final Set<String> cut = new HashSet<>();
+  }
+
+  /**
+   * A set of paths, either given by its elements or, since most commits are in the history of almost all paths, by the
+   * paths it excludes.
+   */
+  private static final class PathSet {
+    private static final PathSet ALL = new PathSet(true, Collections.emptySet());
+    private static final PathSet NONE = new PathSet(false, Collections.emptySet());
+
+    private final boolean excluding;
+    private final Set<String> paths;
+
+    private PathSet(boolean excluding, Set<String> paths) {
+      this.excluding = excluding;
+      this.paths = paths;
+    }
+
+    private static PathSet of(Set<String> paths) {
+      return paths.isEmpty() ? NONE : new PathSet(false, paths);
+    }
+
+    private boolean contains(String path) {
+      return excluding != paths.contains(path);
+    }
+
+    private boolean isEmpty() {
+      return !excluding && paths.isEmpty();
+    }
+
+    private PathSet minus(Set<String> others) {
+      if (others.isEmpty() || isEmpty()) {
+        return this;
+      }
+      final Set<String> result = new HashSet<>(paths);
+      if (excluding) {
+        result.addAll(others);
+        return new PathSet(true, result);
+      }
+      result.removeIf(others::contains);
+      return of(result);
+    }
+
+    private PathSet union(PathSet other) {
+      if (other.isEmpty() || this == ALL) {
+        return this;
+      }
+      if (isEmpty() || other == ALL) {
+        return other;
+      }
+      final Set<String> result;
+      if (excluding && other.excluding) {
+        result = new HashSet<>(paths);
+        result.retainAll(other.paths);
+        return result.isEmpty() ? ALL : new PathSet(true, result);
+      }
+      if (excluding || other.excluding) {
+        final PathSet excluded = excluding ? this : other;
+        final PathSet included = excluding ? other : this;
+        result = new HashSet<>(excluded.paths);
+        result.removeIf(included.paths::contains);
+        return result.isEmpty() ? ALL : new PathSet(true, result);
+      }
+      result = new HashSet<>(paths);
+      result.addAll(other.paths);
+      return new PathSet(false, result);
+    }
+  }
+
+  /**
+   * The information kept from a commit, shared by all the paths it touches.
+   */
+  private static final class CommitInfo {
+    private final int year;
+    private final boolean ignored;
+    private final String authorName;
+    private final String authorEmail;
+
+    private CommitInfo(RevCommit commit, ToIntFunction<RevCommit> yearOfCommit, Set<ObjectId> commitsToIgnore) {
+      PersonIdent author = commit.getAuthorIdent();
+      this.year = yearOfCommit.applyAsInt(commit);
+      this.ignored = commitsToIgnore.contains(commit.getId());
+      this.authorName = author.getName();
+      this.authorEmail = author.getEmailAddress();
+    }
+
+    private CommitInfo(int year, boolean ignored, String authorName, String authorEmail) {
+      this.year = year;
+      this.ignored = ignored;
+      this.authorName = authorName;
+      this.authorEmail = authorEmail;
+    }
+  }
+
+  /**
+   * The history of a path, fed with the commits touching it from the most recent to the oldest.
+   */
+  private static final class PathHistory {
+    private int commitCount;
+    private int lastChangeYear;
+    private CommitInfo creation;
+    /**
+     * The commits touching the path, most recent first. Only kept when the number of commits to check is bounded,
+     * since the year of the last change and the creation of a merged history then depend on which commits are cut.
+     */
+    private List<CommitInfo> commits;
+
+    private void record(CommitInfo commit, int checkCommitsCount) {
+      if (commitCount >= checkCommitsCount) {
+        return;
+      }
+      commitCount++;
+      creation = commit;
+      if (!commit.ignored && commit.year > lastChangeYear) {
+        lastChangeYear = commit.year;
+      }
+      if (checkCommitsCount != UNBOUNDED) {
+        if (commits == null) {
+          commits = new ArrayList<>();
+        }
+        commits.add(commit);
+      }
+    }
+
+    /**
+     * Appends the history of the same path built from older commits to this one.
+     */
+    private PathHistory followedBy(PathHistory older, int checkCommitsCount) {
+      if (checkCommitsCount != UNBOUNDED) {
+        for (CommitInfo commit : older.commits) {
+          record(commit, checkCommitsCount);
+        }
+      } else if (older.commitCount > 0) {
+        commitCount = (int) Math.min((long) commitCount + older.commitCount, UNBOUNDED);
+        lastChangeYear = Math.max(lastChangeYear, older.lastChangeYear);
+        creation = older.creation;
+      }
+      return this;
+    }
+  }
+}
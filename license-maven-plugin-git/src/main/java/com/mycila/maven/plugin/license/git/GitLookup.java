@@ -17,6 +17,7 @@ package com.mycila.maven.plugin.license.git;
 
 import org.eclipse.jgit.api.Git;
 import org.eclipse.jgit.api.Status;
+import org.eclipse.jgit.api.StatusCommand;
 import org.eclipse.jgit.api.errors.GitAPIException;
 import org.eclipse.jgit.diff.DiffConfig;
 import org.eclipse.jgit.lib.Constants;
@@ -37,9 +38,11 @@ import org.eclipse.jgit.treewalk.filter.TreeFilter;
 import java.io.File;
 import java.io.IOException;
 import java.io.UncheckedIOException;
+import java.nio.file.Path;
 import java.util.Arrays;
 import java.util.Calendar;
 import java.util.Date;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.Map;
 import java.util.Objects;
@@ -64,6 +67,8 @@ public class GitLookup implements AutoCloseable {
   public static final String COPYRIGHT_LAST_YEAR_SOURCE_KEY = "license.git.copyrightLastYearSource";
   public static final String COPYRIGHT_LAST_YEAR_TIME_ZONE_KEY = "license.git.copyrightLastYearTimeZone";
   public static final String COMMITS_TO_IGNORE_KEY = "license.git.commitsToIgnore";
+  public static final String HISTORY_INDEX_KEY = "license.git.historyIndex";
+  public static final String HISTORY_CACHE_FILE_KEY = "license.git.historyCacheFile";
 
   public enum DateSource {
     AUTHOR, COMMITER
@@ -76,6 +81,11 @@ public class GitLookup implements AutoCloseable {
   private final TimeZone timeZone;
   private final boolean shallow;
   private final Set<ObjectId> commitsToIgnore;
+  private final boolean useHistoryIndex;
+  private final Path historyCacheFile;
+  private final String statusScope;
+  private volatile GitHistoryIndex historyIndex;
+  private volatile Set<String> dirtyPaths;
 
   /**
    * Lazily initializes #gitLookup assuming that all subsequent calls to this method will be related
@@ -116,7 +126,19 @@ public class GitLookup implements AutoCloseable {
         .map(TimeZone::getTimeZone)
         .orElse(DEFAULT_ZONE);
 
-    return new GitLookup(file, dateSource, timeZone, checkCommitsCount, commitsToIgnore);
+    final Path historyCacheFile = Optional.ofNullable(props.get(HISTORY_CACHE_FILE_KEY))
+        .map(String::trim)
+        .filter(s -> !s.isEmpty())
+        .map(s -> file.toPath().resolve(s))
+        .orElse(null);
+
+    // a cache file implies the use of the history index
+    final boolean useHistoryIndex = historyCacheFile != null || Optional.ofNullable(props.get(HISTORY_INDEX_KEY))
+        .map(String::trim)
+        .map(Boolean::parseBoolean)
+        .orElse(false);
+
+    return new GitLookup(file, dateSource, timeZone, checkCommitsCount, commitsToIgnore, useHistoryIndex, historyCacheFile);
   }
 
   /**
@@ -132,8 +154,11 @@ public class GitLookup implements AutoCloseable {
    *                          otherwise must be {@code null}.
    * @param checkCommitsCount the number of historical commits, per file, to check
    * @param commitsToIgnore   the commits to ignore while inspecting the history for {@code anyFile}
+   * @param useHistoryIndex   whether to walk the whole history once to index all paths instead of walking it once per
+   *                          file
+   * @param historyCacheFile  the file where the history index is persisted between executions, or {@code null}
    */
-  private GitLookup(File anyFile, DateSource dateSource, TimeZone timeZone, int checkCommitsCount, Set<ObjectId> commitsToIgnore) {
+  private GitLookup(File anyFile, DateSource dateSource, TimeZone timeZone, int checkCommitsCount, Set<ObjectId> commitsToIgnore, boolean useHistoryIndex, Path historyCacheFile) {
     requireNonNull(anyFile);
     requireNonNull(dateSource);
     requireNonNull(timeZone);
@@ -151,10 +176,13 @@ public class GitLookup implements AutoCloseable {
         this.shallow = !objectReader.getShallowCommits().isEmpty();
       }
       this.pathResolver = new GitPathResolver(repository.getWorkTree().getAbsolutePath());
+      this.statusScope = getStatusScope(repository.getWorkTree(), anyFile);
       this.dateSource = dateSource;
       this.timeZone = timeZone;
       this.checkCommitsCount = checkCommitsCount;
       this.commitsToIgnore = commitsToIgnore;
+      this.useHistoryIndex = useHistoryIndex;
+      this.historyCacheFile = historyCacheFile;
     } catch (IOException e) {
       throw new UncheckedIOException(e);
     }
@@ -165,7 +193,7 @@ public class GitLookup implements AutoCloseable {
    * year is taken either from the committer date or from the author identity depending on how {@link #dateSource} was
    * initialized.
    * <p>
-   * See also the note on time zones in {@link #GitLookup(File, DateSource, TimeZone, int, Set)}.
+   * See also the note on time zones in {@link #GitLookup(File, DateSource, TimeZone, int, Set, boolean, Path)}.
    *
    * @param file for which the year should be retrieved
    * @return year of last modification of the file
@@ -179,6 +207,10 @@ public class GitLookup implements AutoCloseable {
       return getCurrentYear();
     }
 
+    if (useHistoryIndex) {
+      return getHistoryIndex().getYearOfLastChange(repoRelativePath);
+    }
+
     int commitYear = 0;
     RevWalk walk = getGitRevWalk(repoRelativePath, false);
     for (RevCommit commit : walk) {
@@ -203,13 +235,17 @@ public class GitLookup implements AutoCloseable {
     String repoRelativePath = pathResolver.relativize(file);
 
     int commitYear = 0;
-    RevWalk walk = getGitRevWalk(repoRelativePath, true);
-    Iterator<RevCommit> iterator = walk.iterator();
-    if (iterator.hasNext()) {
-      RevCommit commit = iterator.next();
-      commitYear = getYearFromCommit(commit);
+    if (useHistoryIndex) {
+      commitYear = getHistoryIndex().getYearOfCreation(repoRelativePath);
+    } else {
+      RevWalk walk = getGitRevWalk(repoRelativePath, true);
+      Iterator<RevCommit> iterator = walk.iterator();
+      if (iterator.hasNext()) {
+        RevCommit commit = iterator.next();
+        commitYear = getYearFromCommit(commit);
+      }
+      walk.dispose();
     }
-    walk.dispose();
 
     // If we couldn't find a creation year from Git assume newly created file
     if (commitYear == 0) {
@@ -221,6 +257,9 @@ public class GitLookup implements AutoCloseable {
 
   String getAuthorNameOfCreation(File file) throws IOException {
     String repoRelativePath = pathResolver.relativize(file);
+    if (useHistoryIndex) {
+      return getHistoryIndex().getAuthorNameOfCreation(repoRelativePath);
+    }
     String authorName = "";
     RevWalk walk = getGitRevWalk(repoRelativePath, true);
     Iterator<RevCommit> iterator = walk.iterator();
@@ -234,6 +273,9 @@ public class GitLookup implements AutoCloseable {
 
   String getAuthorEmailOfCreation(File file) throws IOException {
     String repoRelativePath = pathResolver.relativize(file);
+    if (useHistoryIndex) {
+      return getHistoryIndex().getAuthorEmailOfCreation(repoRelativePath);
+    }
     String authorEmail = "";
     RevWalk walk = getGitRevWalk(repoRelativePath, true);
     Iterator<RevCommit> iterator = walk.iterator();
@@ -250,6 +292,10 @@ public class GitLookup implements AutoCloseable {
   }
 
   private boolean isFileModifiedOrUnstaged(String repoRelativePath) throws GitAPIException {
+    if (statusScope.isEmpty() || repoRelativePath.startsWith(statusScope + "/")) {
+      return getDirtyPaths().contains(repoRelativePath);
+    }
+    // outside the directory covered by the batched status
     Status status = null;
     try (Git git = new Git(repository)) {
       status = git.status().addPath(repoRelativePath).call();
@@ -257,6 +303,94 @@ public class GitLookup implements AutoCloseable {
     return !status.isClean();
   }
 
+  /**
+   * Lazily computes the status of the working tree once, restricted to {@link #statusScope}, instead of reading the
+   * index and hashing the working tree again for every file.
+   *
+   * @return the paths that are not clean: added, changed, removed, missing, modified, untracked or conflicting
+   */
+  private Set<String> getDirtyPaths() throws GitAPIException {
+    Set<String> paths = dirtyPaths;
+    if (paths == null) {
+      synchronized (this) {
+        paths = dirtyPaths;
+        if (paths == null) {
+          Status status;
+          try (Git git = new Git(repository)) {
+            StatusCommand command = git.status();
+            if (!statusScope.isEmpty()) {
+              command.addPath(statusScope);
+            }
+            status = command.call();
+          }
+          paths = new HashSet<>();
+          paths.addAll(status.getAdded());
+          paths.addAll(status.getChanged());
+          paths.addAll(status.getRemoved());
+          paths.addAll(status.getMissing());
+          paths.addAll(status.getModified());
+          paths.addAll(status.getUntracked());
+          paths.addAll(status.getConflicting());
+          dirtyPaths = paths;
+        }
+      }
+    }
+    return paths;
+  }
+
+  /**
+   * @return the path of {@code anyFile} relative to the working tree if it is a directory within it, or an empty
+   * string to cover the whole working tree
+   */
+  private static String getStatusScope(File workTree, File anyFile) {
+    Path root = workTree.toPath().toAbsolutePath().normalize();
+    Path dir = anyFile.toPath().toAbsolutePath().normalize();
+    if (!anyFile.isDirectory() || !dir.startsWith(root)) {
+      return "";
+    }
+    return root.relativize(dir).toString().replace(File.separatorChar, '/');
+  }
+
+  /**
+   * Lazily builds the {@link GitHistoryIndex} on first use, so that the history is only walked when a git derived
+   * property is actually needed. When a {@link #historyCacheFile} is configured, the index is read from it, updated
+   * with the commits added since it was written and written back.
+   */
+  private GitHistoryIndex getHistoryIndex() throws IOException {
+    GitHistoryIndex index = historyIndex;
+    if (index == null) {
+      synchronized (this) {
+        index = historyIndex;
+        if (index == null) {
+          if (historyCacheFile == null) {
+            index = GitHistoryIndex.build(repository, null, checkCommitsCount, commitsToIgnore, this::getYearFromCommit);
+          } else {
+            String fingerprint = getHistoryIndexFingerprint();
+            GitHistoryIndex cached = GitHistoryIndex.readFrom(historyCacheFile, fingerprint);
+            index = GitHistoryIndex.build(repository, cached, checkCommitsCount, commitsToIgnore, this::getYearFromCommit);
+            if (index != cached) {
+              index.writeTo(historyCacheFile, fingerprint);
+            }
+          }
+          historyIndex = index;
+        }
+      }
+    }
+    return index;
+  }
+
+  /**
+   * @return a description of all the settings the content of the {@link GitHistoryIndex} depends on, so that a cached
+   * index built with other settings is not reused
+   */
+  private String getHistoryIndexFingerprint() {
+    return repository.getDirectory().getAbsolutePath()
+        + "|" + dateSource
+        + "|" + timeZone.getID()
+        + "|" + checkCommitsCount
+        + "|" + commitsToIgnore.stream().map(ObjectId::name).sorted().collect(Collectors.joining(","));
+  }
+
   private RevWalk getGitRevWalk(String repoRelativePath, boolean oldestCommitsFirst) throws IOException {
     DiffConfig diffConfig = repository.getConfig().get(DiffConfig.KEY);
 
@@ -0,0 +1,106 @@
+/*
+ * Copyright (C) 2008-2025 Mycila (mathieu.carbou@gmail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.mycila.maven.plugin.license.git;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.maven.plugin.MojoExecutionException;
+import org.eclipse.jgit.dircache.DirCacheIterator;
+import org.eclipse.jgit.lib.FileMode;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.storage.file.FileRepositoryBuilder;
+import org.eclipse.jgit.treewalk.FileTreeIterator;
+import org.eclipse.jgit.treewalk.TreeWalk;
+import org.eclipse.jgit.treewalk.WorkingTreeIterator;
+import org.eclipse.jgit.treewalk.filter.PathFilter;
+
+import com.mycila.maven.plugin.license.AbstractLicenseMojo;
+import com.mycila.maven.plugin.license.FileSelectionProvider;
+
+/**
+ * An implementation of {@link FileSelectionProvider} restricting the files to the ones tracked by git when
+ * {@value #TRACKED_FILES_KEY} is {@code true}. They are read from the git index instead of scanning the base directory,
+ * so that ignored directories, like build outputs or downloaded dependencies, are never visited.
+ * <p>
+ * When {@value #UNTRACKED_FILES_KEY} is {@code true} as well, the untracked files which are not ignored are added.
+ * Finding them requires walking the working tree, but ignored directories are still not entered.
+ */
+public class TrackedFilesSelectionProvider implements FileSelectionProvider {
+
+  public static final String TRACKED_FILES_KEY = "license.git.trackedFiles";
+  public static final String UNTRACKED_FILES_KEY = "license.git.untrackedFiles";
+
+  @Override
+  public Collection<String> getCandidateFiles(AbstractLicenseMojo mojo, Map<String, String> currentProperties,
+                                              File basedir) throws MojoExecutionException {
+    if (!Boolean.parseBoolean(trim(currentProperties.get(TRACKED_FILES_KEY)))) {
+      return null;
+    }
+    boolean untracked = Boolean.parseBoolean(trim(currentProperties.get(UNTRACKED_FILES_KEY)));
+    FileRepositoryBuilder builder = new FileRepositoryBuilder().findGitDir(basedir);
+    if (builder.getGitDir() == null) {
+      throw new MojoExecutionException("'" + TRACKED_FILES_KEY + "' is set but " + basedir + " is not in a git repository");
+    }
+    try (Repository repository = builder.build()) {
+      Set<String> files = getTrackedFiles(repository, basedir, untracked);
+      mojo.info("%d %sfiles in %s", files.size(), untracked ? "tracked and untracked " : "tracked ", basedir);
+      return files;
+    } catch (IOException e) {
+      throw new MojoExecutionException("Unable to list the files tracked by git in " + basedir + ": " + e.getMessage(), e);
+    }
+  }
+
+  /**
+   * @param untracked whether to add the untracked files which are not ignored
+   * @return the paths of the files in the git index, relative to {@code basedir}. Files deleted from the working tree
+   * but still in the index are included. Submodules are not.
+   */
+  static Set<String> getTrackedFiles(Repository repository, File basedir, boolean untracked)
+      throws IOException, MojoExecutionException {
+    String scope = ChangedFilesSelectionProvider.getScope(repository, basedir);
+    Set<String> files = new HashSet<>();
+    try (TreeWalk walk = new TreeWalk(repository)) {
+      int index = walk.addTree(new DirCacheIterator(repository.readDirCache()));
+      int workingTree = untracked ? walk.addTree(new FileTreeIterator(repository)) : -1;
+      if (!scope.isEmpty()) {
+        walk.setFilter(PathFilter.create(scope));
+      }
+      while (walk.next()) {
+        if (walk.getRawMode(index) == FileMode.TYPE_MISSING) {
+          WorkingTreeIterator entry = workingTree < 0 ? null : walk.getTree(workingTree, WorkingTreeIterator.class);
+          if (entry == null || entry.isEntryIgnored()) {
+            continue;
+          }
+        }
+        if (walk.isSubtree()) {
+          walk.enterSubtree();
+        } else if (walk.getFileMode() != FileMode.GITLINK) {
+          files.add(walk.getPathString());
+        }
+      }
+    }
+    return ChangedFilesSelectionProvider.relativize(files, scope);
+  }
+
+  private static String trim(String value) {
+    return value == null ? null : value.trim();
+  }
+}
@@ -0,0 +1,101 @@
+/*
+ * Copyright (C) 2008-2025 Mycila (mathieu.carbou@gmail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.mycila.maven.plugin.license.git;
+
+import com.mycila.maven.plugin.license.LicenseCheckMojo;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.eclipse.jgit.api.Git;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+class ChangedFilesSelectionProviderTest {
+
+  @TempDir
+  Path tempFolder;
+
+  @Test
+  void changedFiles() throws Exception {
+    Path repo = tempFolder.resolve("repo");
+    try (Git git = Git.init().setDirectory(repo.toFile()).call()) {
+      write(repo.resolve(".gitignore"), "*.log\n");
+      write(repo.resolve("unchanged.txt"), "unchanged");
+      write(repo.resolve("modified.txt"), "v1");
+      write(repo.resolve("deleted.txt"), "deleted");
+      write(repo.resolve("sub/unchanged.txt"), "unchanged");
+      commitAll(git, "base");
+      git.tag().setName("base").call();
+
+      write(repo.resolve("committed.txt"), "committed");
+      write(repo.resolve("sub/committed.txt"), "committed");
+      commitAll(git, "second");
+      write(repo.resolve("modified.txt"), "v2");
+      write(repo.resolve("staged.txt"), "staged");
+      git.add().addFilepattern("staged.txt").call();
+      write(repo.resolve("sub/untracked.txt"), "untracked");
+      write(repo.resolve("ignored.log"), "ignored");
+      git.rm().addFilepattern("deleted.txt").call();
+
+      Assertions.assertEquals(
+          new TreeSet<>(Set.of("committed.txt", "modified.txt", "staged.txt", "sub/committed.txt", "sub/untracked.txt")),
+          new TreeSet<>(ChangedFilesSelectionProvider.getChangedFiles(git.getRepository(), "base", repo.toFile())));
+      Assertions.assertEquals(
+          new TreeSet<>(Set.of("committed.txt", "untracked.txt")),
+          new TreeSet<>(ChangedFilesSelectionProvider.getChangedFiles(git.getRepository(), "base", repo.resolve("sub").toFile())));
+      Assertions.assertEquals(
+          Set.of("modified.txt", "staged.txt", "sub/untracked.txt"),
+          ChangedFilesSelectionProvider.getChangedFiles(git.getRepository(), "HEAD", repo.toFile()));
+    }
+  }
+
+  @Test
+  void provider() throws Exception {
+    Path repo = tempFolder.resolve("repo");
+    try (Git git = Git.init().setDirectory(repo.toFile()).call()) {
+      write(repo.resolve("a.txt"), "a");
+      commitAll(git, "base");
+      write(repo.resolve("b.txt"), "b");
+
+      ChangedFilesSelectionProvider provider = new ChangedFilesSelectionProvider();
+      LicenseCheckMojo mojo = new LicenseCheckMojo();
+      Assertions.assertNull(provider.getCandidateFiles(mojo, Collections.emptyMap(), repo.toFile()));
+      Assertions.assertEquals(Set.of("b.txt"), provider.getCandidateFiles(mojo,
+          Map.of(ChangedFilesSelectionProvider.CHANGED_SINCE_KEY, "HEAD"), repo.toFile()));
+      Assertions.assertThrows(MojoExecutionException.class, () -> provider.getCandidateFiles(mojo,
+          Map.of(ChangedFilesSelectionProvider.CHANGED_SINCE_KEY, "unknown"), repo.toFile()));
+    }
+  }
+
+  private static void commitAll(Git git, String message) throws Exception {
+    git.add().addFilepattern(".").call();
+    git.commit().setMessage(message).setSign(false).call();
+  }
+
+  private static void write(Path file, String content) throws IOException {
+    Files.createDirectories(file.getParent());
+    Files.write(file, content.getBytes(UTF_8));
+  }
+}
@@ -0,0 +1,240 @@
+/*
+ * Copyright (C) 2008-2025 Mycila (mathieu.carbou@gmail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.mycila.maven.plugin.license.git;
+
+import org.eclipse.jgit.api.Git;
+import org.eclipse.jgit.api.ResetCommand;
+import org.eclipse.jgit.api.errors.GitAPIException;
+import org.eclipse.jgit.lib.PersonIdent;
+import org.eclipse.jgit.merge.MergeStrategy;
+import org.eclipse.jgit.revwalk.RevCommit;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.ToIntFunction;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+class GitHistoryIndexTest {
+
+  private static final ToIntFunction<RevCommit> AUTHOR_YEAR =
+      commit -> commit.getAuthorIdent().getWhenAsInstant().atZone(ZoneOffset.UTC).getYear();
+
+  @TempDir
+  Path tempFolder;
+
+  @Test
+  void incrementalUpdate() throws Exception {
+    Path repo = tempFolder.resolve("repo");
+    Path cacheFile = tempFolder.resolve("cache/history.idx");
+    try (Git git = Git.init().setDirectory(repo.toFile()).call()) {
+      commit(git, 2001, "alice", "a.txt", "b.txt");
+      commit(git, 2003, "bob", "a.txt");
+      assertCachedLookupMatchesWalk(repo, cacheFile, "10", "a.txt", "b.txt");
+      Assertions.assertTrue(Files.isRegularFile(cacheFile));
+
+      commit(git, 2005, "carol", "b.txt", "c.txt");
+      commit(git, 2007, "dave", "c.txt");
+      assertCachedLookupMatchesWalk(repo, cacheFile, "10", "a.txt", "b.txt", "c.txt");
+
+      try (GitLookup lookup = newLookup(repo, cacheFile, "10")) {
+        Assertions.assertEquals(2003, lookup.getYearOfLastChange(repo.resolve("a.txt").toFile()));
+        Assertions.assertEquals(2005, lookup.getYearOfLastChange(repo.resolve("b.txt").toFile()));
+        Assertions.assertEquals(2001, lookup.getYearOfCreation(repo.resolve("b.txt").toFile()));
+        Assertions.assertEquals(2007, lookup.getYearOfLastChange(repo.resolve("c.txt").toFile()));
+        Assertions.assertEquals("carol", lookup.getAuthorNameOfCreation(repo.resolve("c.txt").toFile()));
+      }
+    }
+  }
+
+  @Test
+  void incrementalUpdateWithBoundedLookup() throws Exception {
+    Path repo = tempFolder.resolve("repo");
+    Path cacheFile = tempFolder.resolve("history.idx");
+    try (Git git = Git.init().setDirectory(repo.toFile()).call()) {
+      commit(git, 2001, "alice", "a.txt", "b.txt");
+      commit(git, 2002, "bob", "a.txt");
+      commit(git, 2003, "carol", "a.txt");
+      assertCachedLookupMatchesWalk(repo, cacheFile, "2", "a.txt", "b.txt");
+
+      commit(git, 2004, "dave", "b.txt");
+      assertCachedLookupMatchesWalk(repo, cacheFile, "2", "a.txt", "b.txt");
+
+      commit(git, 2005, "erin", "a.txt");
+      assertCachedLookupMatchesWalk(repo, cacheFile, "2", "a.txt", "b.txt");
+    }
+  }
+
+  @Test
+  void incrementalUpdateWithOlderMergedBranch() throws Exception {
+    Path repo = tempFolder.resolve("repo");
+    Path cacheFile = tempFolder.resolve("history.idx");
+    try (Git git = Git.init().setDirectory(repo.toFile()).call()) {
+      String mainBranch = git.getRepository().getBranch();
+      RevCommit first = commit(git, 2001, "alice", "a.txt");
+      git.checkout().setCreateBranch(true).setName("old").setStartPoint(first).call();
+      commit(git, 2002, "bob", "a.txt");
+      git.checkout().setName(mainBranch).call();
+      commit(git, 2005, "carol", "a.txt");
+      commit(git, 2006, "dave", "a.txt");
+      GitHistoryIndex.build(git.getRepository(), null, 2, Collections.emptySet(), AUTHOR_YEAR)
+          .writeTo(cacheFile, "settings");
+
+      // the branch commit is dated before the indexed ones: a full walk does not visit it first
+      git.merge().include(git.getRepository().resolve("old")).setStrategy(MergeStrategy.OURS).call();
+      GitHistoryIndex incremental = GitHistoryIndex.build(git.getRepository(),
+          GitHistoryIndex.readFrom(cacheFile, "settings"), 2, Collections.emptySet(), AUTHOR_YEAR);
+      GitHistoryIndex full = GitHistoryIndex.build(git.getRepository(), null, 2, Collections.emptySet(), AUTHOR_YEAR);
+
+      Assertions.assertEquals("carol", full.getAuthorNameOfCreation("a.txt"));
+      Assertions.assertEquals(full.getYearOfCreation("a.txt"), incremental.getYearOfCreation("a.txt"));
+      Assertions.assertEquals(full.getYearOfLastChange("a.txt"), incremental.getYearOfLastChange("a.txt"));
+      Assertions.assertEquals(full.getAuthorNameOfCreation("a.txt"), incremental.getAuthorNameOfCreation("a.txt"));
+    }
+  }
+
+  @Test
+  void mergeDiscardingBranchChanges() throws Exception {
+    Path repo = tempFolder.resolve("repo");
+    Path cacheFile = tempFolder.resolve("history.idx");
+    try (Git git = Git.init().setDirectory(repo.toFile()).call()) {
+      String mainBranch = git.getRepository().getBranch();
+      RevCommit first = commit(git, 2001, "alice", "a.txt", "b.txt");
+      git.checkout().setCreateBranch(true).setName("discarded").setStartPoint(first).call();
+      commit(git, 2005, "bob", "a.txt");
+      git.checkout().setName(mainBranch).call();
+      RevCommit second = commit(git, 2003, "carol", "b.txt");
+      git.checkout().setCreateBranch(true).setName("feature").setStartPoint(second).call();
+      commit(git, 2006, "dave", "b.txt", "d.txt");
+      git.checkout().setName(mainBranch).call();
+
+      // the edit of a.txt is discarded, while the edits of the feature branch are kept
+      git.merge().include(git.getRepository().resolve("discarded")).setStrategy(MergeStrategy.OURS).call();
+      git.merge().include(git.getRepository().resolve("feature")).call();
+      assertCachedLookupMatchesWalk(repo, cacheFile, "10", "a.txt", "b.txt", "d.txt");
+
+      try (GitLookup lookup = newLookup(repo, cacheFile, "10")) {
+        Assertions.assertEquals(2001, lookup.getYearOfLastChange(repo.resolve("a.txt").toFile()));
+        Assertions.assertEquals(2006, lookup.getYearOfLastChange(repo.resolve("b.txt").toFile()));
+        Assertions.assertEquals(2001, lookup.getYearOfCreation(repo.resolve("b.txt").toFile()));
+        Assertions.assertEquals("dave", lookup.getAuthorNameOfCreation(repo.resolve("d.txt").toFile()));
+      }
+    }
+  }
+
+  @Test
+  void rewrittenHistory() throws Exception {
+    Path repo = tempFolder.resolve("repo");
+    Path cacheFile = tempFolder.resolve("history.idx");
+    try (Git git = Git.init().setDirectory(repo.toFile()).call()) {
+      RevCommit first = commit(git, 2001, "alice", "a.txt", "b.txt");
+      commit(git, 2009, "bob", "a.txt");
+      assertCachedLookupMatchesWalk(repo, cacheFile, "10", "a.txt", "b.txt");
+
+      // the cached HEAD is no longer an ancestor of HEAD
+      git.reset().setMode(ResetCommand.ResetType.HARD).setRef(first.name()).call();
+      commit(git, 2004, "carol", "b.txt");
+      assertCachedLookupMatchesWalk(repo, cacheFile, "10", "a.txt", "b.txt");
+
+      try (GitLookup lookup = newLookup(repo, cacheFile, "10")) {
+        Assertions.assertEquals(2001, lookup.getYearOfLastChange(repo.resolve("a.txt").toFile()));
+      }
+    }
+  }
+
+  @Test
+  void cacheIgnoredForOtherSettings() throws Exception {
+    Path repo = tempFolder.resolve("repo");
+    Path cacheFile = tempFolder.resolve("history.idx");
+    try (Git git = Git.init().setDirectory(repo.toFile()).call()) {
+      commit(git, 2001, "alice", "a.txt");
+      GitHistoryIndex index = GitHistoryIndex.build(git.getRepository(), null, Integer.MAX_VALUE,
+          Collections.emptySet(), AUTHOR_YEAR);
+      index.writeTo(cacheFile, "settings");
+
+      Assertions.assertNotNull(GitHistoryIndex.readFrom(cacheFile, "settings"));
+      Assertions.assertNull(GitHistoryIndex.readFrom(cacheFile, "other settings"));
+      Assertions.assertNull(GitHistoryIndex.readFrom(tempFolder.resolve("missing.idx"), "settings"));
+
+      Files.write(cacheFile, "garbage".getBytes(UTF_8));
+      Assertions.assertNull(GitHistoryIndex.readFrom(cacheFile, "settings"));
+    }
+  }
+
+  @Test
+  void unchangedHeadReusesCache() throws Exception {
+    Path repo = tempFolder.resolve("repo");
+    Path cacheFile = tempFolder.resolve("history.idx");
+    try (Git git = Git.init().setDirectory(repo.toFile()).call()) {
+      commit(git, 2001, "alice", "a.txt");
+      GitHistoryIndex index = GitHistoryIndex.build(git.getRepository(), null, Integer.MAX_VALUE,
+          Collections.emptySet(), AUTHOR_YEAR);
+      index.writeTo(cacheFile, "settings");
+
+      GitHistoryIndex cached = GitHistoryIndex.readFrom(cacheFile, "settings");
+      Assertions.assertSame(cached, GitHistoryIndex.build(git.getRepository(), cached, Integer.MAX_VALUE,
+          Collections.emptySet(), AUTHOR_YEAR));
+      Assertions.assertEquals(2001, cached.getYearOfCreation("a.txt"));
+      Assertions.assertEquals("alice@example.com", cached.getAuthorEmailOfCreation("a.txt"));
+    }
+  }
+
+  private static RevCommit commit(Git git, int year, String author, String... paths) throws IOException, GitAPIException {
+    File workTree = git.getRepository().getWorkTree();
+    for (String path : paths) {
+      Path file = workTree.toPath().resolve(path);
+      Files.write(file, (author + year + "\n").getBytes(UTF_8),
+          StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+      git.add().addFilepattern(path).call();
+    }
+    PersonIdent ident = new PersonIdent(author, author + "@example.com",
+        Instant.parse(year + "-06-01T12:00:00Z"), ZoneOffset.UTC);
+    return git.commit().setAuthor(ident).setCommitter(ident).setMessage(author + " " + year).call();
+  }
+
+  private static GitLookup newLookup(Path repo, Path cacheFile, String maxCommitsLookup) {
+    Map<String, String> props = new HashMap<>();
+    props.put(GitLookup.MAX_COMMITS_LOOKUP_KEY, maxCommitsLookup);
+    if (cacheFile != null) {
+      props.put(GitLookup.HISTORY_CACHE_FILE_KEY, cacheFile.toString());
+    }
+    return GitLookup.create(repo.toFile(), props);
+  }
+
+  private static void assertCachedLookupMatchesWalk(Path repo, Path cacheFile, String maxCommitsLookup, String... paths)
+      throws IOException, GitAPIException {
+    try (GitLookup walkLookup = newLookup(repo, null, maxCommitsLookup);
+         GitLookup cachedLookup = newLookup(repo, cacheFile, maxCommitsLookup)) {
+      for (String path : paths) {
+        File file = repo.resolve(path).toFile();
+        Assertions.assertEquals(walkLookup.getYearOfLastChange(file), cachedLookup.getYearOfLastChange(file), path);
+        Assertions.assertEquals(walkLookup.getYearOfCreation(file), cachedLookup.getYearOfCreation(file), path);
+        Assertions.assertEquals(walkLookup.getAuthorNameOfCreation(file), cachedLookup.getAuthorNameOfCreation(file), path);
+      }
+    }
+  }
+}
@@ -16,7 +16,9 @@
 package com.mycila.maven.plugin.license.git;
 
 import com.mycila.maven.plugin.license.git.GitLookup.DateSource;
+import org.eclipse.jgit.api.Git;
 import org.eclipse.jgit.api.errors.GitAPIException;
+import org.eclipse.jgit.lib.PersonIdent;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
@@ -28,8 +30,11 @@ import java.io.File;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.net.URL;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.time.Instant;
+import java.time.ZoneOffset;
 import java.util.Calendar;
 import java.util.HashMap;
 import java.util.Map;
@@ -191,6 +196,92 @@ class GitLookupTest {
 
   }
 
+  @Test
+  void workingTreeStatus() throws GitAPIException, IOException {
+    Path repo = tempFolder.resolve("status-repo");
+    try (Git git = Git.init().setDirectory(repo.toFile()).call()) {
+      write(repo.resolve("clean.txt"), "clean");
+      write(repo.resolve("modified.txt"), "committed");
+      write(repo.resolve("sub/clean.txt"), "clean");
+      git.add().addFilepattern(".").call();
+      PersonIdent ident = new PersonIdent("author", "author@example.com", Instant.parse("2001-06-01T12:00:00Z"), ZoneOffset.UTC);
+      git.commit().setAuthor(ident).setCommitter(ident).setMessage("initial").call();
+
+      write(repo.resolve("modified.txt"), "modified");
+      write(repo.resolve("staged.txt"), "staged");
+      git.add().addFilepattern("staged.txt").call();
+      write(repo.resolve("untracked/dir/new.txt"), "untracked");
+    }
+
+    int currentYear = getCurrentGmtYear();
+    try (GitLookup lookup = GitLookup.create(repo.toFile(), buildProps(DateSource.AUTHOR, null, null, null))) {
+      Assertions.assertEquals(2001, lookup.getYearOfLastChange(repo.resolve("clean.txt").toFile()));
+      Assertions.assertEquals(2001, lookup.getYearOfLastChange(repo.resolve("sub/clean.txt").toFile()));
+      Assertions.assertEquals(currentYear, lookup.getYearOfLastChange(repo.resolve("modified.txt").toFile()));
+      Assertions.assertEquals(currentYear, lookup.getYearOfLastChange(repo.resolve("staged.txt").toFile()));
+      Assertions.assertEquals(currentYear, lookup.getYearOfLastChange(repo.resolve("untracked/dir/new.txt").toFile()));
+    }
+
+    // files outside of the directory the lookup was created for are queried one by one
+    try (GitLookup lookup = GitLookup.create(repo.resolve("sub").toFile(), buildProps(DateSource.AUTHOR, null, null, null))) {
+      Assertions.assertEquals(2001, lookup.getYearOfLastChange(repo.resolve("sub/clean.txt").toFile()));
+      Assertions.assertEquals(2001, lookup.getYearOfLastChange(repo.resolve("clean.txt").toFile()));
+      Assertions.assertEquals(currentYear, lookup.getYearOfLastChange(repo.resolve("modified.txt").toFile()));
+    }
+  }
+
+  private static void write(Path file, String content) throws IOException {
+    Files.createDirectories(file.getParent());
+    Files.write(file, content.getBytes(StandardCharsets.UTF_8));
+  }
+
+  @Test
+  void historyIndex() throws GitAPIException, IOException {
+    try (GitLookup authorProvider = newIndexLookup(DateSource.AUTHOR);
+        GitLookup committerProvider = newIndexLookup(DateSource.COMMITER)) {
+
+      assertLastChange(authorProvider, "dir1/file1.txt", 2006);
+      assertLastChange(committerProvider, "dir1/file1.txt", 2006);
+      assertCreation(authorProvider, "dir1/file1.txt", 2000);
+      assertCreation(committerProvider, "dir1/file1.txt", 2000);
+
+      assertLastChange(authorProvider, "dir1/file3.txt", 2009);
+      assertLastChange(committerProvider, "dir1/file3.txt", 2010);
+      assertCreation(authorProvider, "dir1/file3.txt", 2009);
+      assertCreation(committerProvider, "dir1/file3.txt", 2010);
+
+      int currentYear = getCurrentGmtYear();
+      assertLastChange(authorProvider, "dir1/file5.txt", currentYear);
+      assertCreation(authorProvider, "dir1/file6.txt", currentYear);
+    }
+  }
+
+  @Test
+  void historyIndexMatchesPerFileWalk() throws GitAPIException, IOException {
+    String[] paths = {".gitignore", "dir1/file1.txt", "dir2/file2.txt", "dir1/file3.txt", "dir2/file3.txt",
+        "dir2/file4.txt", "dir1/file5.txt", "dir1/file6.txt"};
+    for (DateSource ds : DateSource.values()) {
+      for (String history : new String[]{"10", "2", "1"}) {
+        for (String commitsToIgnore : new String[]{null, "95d52919cbe340dc271cf1f5ec68cf36705bd3a3"}) {
+          Map<String, String> props = buildProps(ds, null, history, commitsToIgnore);
+          Map<String, String> indexProps = new HashMap<>(props);
+          indexProps.put(GitLookup.HISTORY_INDEX_KEY, "true");
+          try (GitLookup walkLookup = GitLookup.create(gitRepoRoot.toFile(), props);
+              GitLookup indexLookup = GitLookup.create(gitRepoRoot.toFile(), indexProps)) {
+            for (String path : paths) {
+              File file = gitRepoRoot.resolve(path.replace('/', File.separatorChar)).toFile();
+              String message = path + " " + props;
+              Assertions.assertEquals(walkLookup.getYearOfLastChange(file), indexLookup.getYearOfLastChange(file), message);
+              Assertions.assertEquals(walkLookup.getYearOfCreation(file), indexLookup.getYearOfCreation(file), message);
+              Assertions.assertEquals(walkLookup.getAuthorNameOfCreation(file), indexLookup.getAuthorNameOfCreation(file), message);
+              Assertions.assertEquals(walkLookup.getAuthorEmailOfCreation(file), indexLookup.getAuthorEmailOfCreation(file), message);
+            }
+          }
+        }
+      }
+    }
+  }
+
   private Map<String, String> buildProps(DateSource ds, String tz, String history, String commitsToIgnoreCSV) {
     Map<String, String> props = new HashMap<>();
     if (history != null) {
@@ -213,6 +304,13 @@ class GitLookupTest {
     return GitLookup.create(gitRepoRoot.toFile(), buildProps(DateSource.AUTHOR, null, "10", null));
   }
 
+  // Make sure to close after call
+  private GitLookup newIndexLookup(DateSource ds) {
+    Map<String, String> props = buildProps(ds, null, "10", null);
+    props.put(GitLookup.HISTORY_INDEX_KEY, "true");
+    return GitLookup.create(gitRepoRoot.toFile(), props);
+  }
+
   // Make sure to close after call
   private GitLookup newCommitterLookup() {
     return GitLookup.create(gitRepoRoot.toFile(), buildProps(DateSource.COMMITER, null, "10", null));
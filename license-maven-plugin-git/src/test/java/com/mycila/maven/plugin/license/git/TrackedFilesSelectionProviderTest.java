@@ -0,0 +1,104 @@
+/*
+ * Copyright (C) 2008-2025 Mycila (mathieu.carbou@gmail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.mycila.maven.plugin.license.git;
+
+import com.mycila.maven.plugin.license.LicenseCheckMojo;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.eclipse.jgit.api.Git;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+class TrackedFilesSelectionProviderTest {
+
+  @TempDir
+  Path tempFolder;
+
+  @Test
+  void trackedFiles() throws Exception {
+    Path repo = tempFolder.resolve("repo");
+    try (Git git = Git.init().setDirectory(repo.toFile()).call()) {
+      write(repo.resolve(".gitignore"), "*.log\ntarget/\n");
+      write(repo.resolve("a.txt"), "a");
+      write(repo.resolve("deleted.txt"), "deleted");
+      write(repo.resolve("sub/b.txt"), "b");
+      write(repo.resolve("sub/deep/c.txt"), "c");
+      git.add().addFilepattern(".").call();
+      git.commit().setMessage("base").setSign(false).call();
+
+      write(repo.resolve("staged.txt"), "staged");
+      git.add().addFilepattern("staged.txt").call();
+      Files.delete(repo.resolve("deleted.txt"));
+      write(repo.resolve("untracked.txt"), "untracked");
+      write(repo.resolve("sub/untracked.txt"), "untracked");
+      write(repo.resolve("new/untracked.txt"), "untracked");
+      write(repo.resolve("ignored.log"), "ignored");
+      write(repo.resolve("target/ignored.txt"), "ignored");
+      write(repo.resolve("sub/target/ignored.txt"), "ignored");
+
+      Assertions.assertEquals(
+          Set.of(".gitignore", "a.txt", "deleted.txt", "staged.txt", "sub/b.txt", "sub/deep/c.txt"),
+          TrackedFilesSelectionProvider.getTrackedFiles(git.getRepository(), repo.toFile(), false));
+      Assertions.assertEquals(
+          Set.of(".gitignore", "a.txt", "deleted.txt", "staged.txt", "sub/b.txt", "sub/deep/c.txt", "untracked.txt",
+              "sub/untracked.txt", "new/untracked.txt"),
+          TrackedFilesSelectionProvider.getTrackedFiles(git.getRepository(), repo.toFile(), true));
+      Assertions.assertEquals(
+          Set.of("b.txt", "deep/c.txt"),
+          TrackedFilesSelectionProvider.getTrackedFiles(git.getRepository(), repo.resolve("sub").toFile(), false));
+      Assertions.assertEquals(
+          Set.of("b.txt", "deep/c.txt", "untracked.txt"),
+          TrackedFilesSelectionProvider.getTrackedFiles(git.getRepository(), repo.resolve("sub").toFile(), true));
+    }
+  }
+
+  @Test
+  void provider() throws Exception {
+    Path repo = tempFolder.resolve("repo");
+    try (Git git = Git.init().setDirectory(repo.toFile()).call()) {
+      write(repo.resolve("a.txt"), "a");
+      git.add().addFilepattern("a.txt").call();
+      write(repo.resolve("b.txt"), "b");
+
+      TrackedFilesSelectionProvider provider = new TrackedFilesSelectionProvider();
+      LicenseCheckMojo mojo = new LicenseCheckMojo();
+      Assertions.assertNull(provider.getCandidateFiles(mojo, Collections.emptyMap(), repo.toFile()));
+      Assertions.assertNull(provider.getCandidateFiles(mojo,
+          Map.of(TrackedFilesSelectionProvider.TRACKED_FILES_KEY, "false"), repo.toFile()));
+      Assertions.assertEquals(Set.of("a.txt"), provider.getCandidateFiles(mojo,
+          Map.of(TrackedFilesSelectionProvider.TRACKED_FILES_KEY, "true"), repo.toFile()));
+      Assertions.assertEquals(Set.of("a.txt", "b.txt"), provider.getCandidateFiles(mojo,
+          Map.of(TrackedFilesSelectionProvider.TRACKED_FILES_KEY, "true",
+              TrackedFilesSelectionProvider.UNTRACKED_FILES_KEY, "true"), repo.toFile()));
+      Assertions.assertThrows(MojoExecutionException.class, () -> provider.getCandidateFiles(mojo,
+          Map.of(TrackedFilesSelectionProvider.TRACKED_FILES_KEY, "true"), tempFolder.resolve("elsewhere").toFile()));
+    }
+  }
+
+  private static void write(Path file, String content) throws IOException {
+    Files.createDirectories(file.getParent());
+    Files.write(file, content.getBytes(UTF_8));
+  }
+}
@@ -31,11 +31,13 @@ import org.tmatesoft.svn.core.wc.SVNInfo;
 import org.tmatesoft.svn.core.wc.SVNRevision;
 
 import java.io.File;
-import java.text.SimpleDateFormat;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
 import java.util.GregorianCalendar;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Queue;
+import java.util.Set;
 import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.atomic.AtomicBoolean;
 
@@ -56,23 +58,45 @@ public class SVNPropertiesProvider implements PropertiesProvider {
   private Credentials svnCredentials;
 
   private final AtomicBoolean warnedIfShallow = new AtomicBoolean();
+  private static final DateTimeFormatter TIMESTAMP_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd-HH:mm:ss");
+
+  /**
+   * The clients not in use. A client is taken from there for each document, and created if there is none, so that as
+   * many clients exist as documents are processed at the same time, whatever the number of threads.
+   */
   private final Queue<SVNClientManager> clients = new ConcurrentLinkedQueue<>();
-  private final ThreadLocal<SimpleDateFormat> sdfTimestampThreadLocal = ThreadLocal.withInitial(
-      () -> new SimpleDateFormat("yyyyMMdd-HH:mm:ss"));
-  private final ThreadLocal<SVNClientManager> svnClientThreadLocal = ThreadLocal.withInitial(() -> {
-    SVNClientManager svnClientManager = svnCredentials == null ?
-        SVNClientManager.newInstance(new DefaultSVNOptions()) :
-        SVNClientManager.newInstance(new DefaultSVNOptions(), svnCredentials.getLogin(),
-            svnCredentials.getPassword());
-    clients.offer(svnClientManager);
-    return svnClientManager;
-  });
+
+  @Override
+  public Set<String> getPropertyKeys() {
+    return Set.of(SVN_COPYRIGHT_LASTCHANGE_YEAR_KEY, SVN_COPYRIGHT_LASTCHANGE_DATE_KEY,
+        SVN_COPYRIGHT_LASTCHANGE_TIMESTAMP_KEY, SVN_COPYRIGHT_LASTCHANGE_REVISION_KEY, SVN_COPYRIGHT_YEARS_RANGE_KEY);
+  }
 
   @Override
   public void init(AbstractLicenseMojo mojo, Map<String, String> currentProperties) {
     svnCredentials = mojo.findCredentials(currentProperties.get(SVN_SERVER_ID_PLUGIN_KEY));
   }
 
+  /**
+   * Only queries the depth of the working copy to fail or skip the build if it is sparse, without warning since no
+   * property is used.
+   */
+  @Override
+  public void checkEnvironment(AbstractLicenseMojo mojo, Map<String, String> currentProperties) {
+    if (mojo.skipOnShallow || mojo.failOnShallow) {
+      init(mojo, currentProperties);
+      final SVNClientManager svnClientManager = acquireClient();
+      try {
+        checkDepth(mojo, svnClientManager, mojo.defaultBasedir, false);
+      } catch (SVNException e) {
+        throw new IllegalStateException("cannot query SVN information for: " + mojo.defaultBasedir, e);
+      } finally {
+        // a provider whose properties are not used is not closed
+        svnClientManager.dispose();
+      }
+    }
+  }
+
   @Override
   public void close() {
     while (!clients.isEmpty()) {
@@ -96,7 +120,7 @@ public class SVNPropertiesProvider implements PropertiesProvider {
                                               Map<String, String> currentProperties, Document document) {
     final Map<String, String> newProperties = new HashMap<>();
     final File documentFile = document.getFile();
-    final SVNClientManager svnClientManager = svnClientThreadLocal.get();
+    final SVNClientManager svnClientManager = acquireClient();
 
     ISVNLogEntryHandler lastChangeDateLogEntryHandler = new ISVNLogEntryHandler() {
       @Override
@@ -104,7 +128,8 @@ public class SVNPropertiesProvider implements PropertiesProvider {
         GregorianCalendar c = new GregorianCalendar();
         c.setTime(logEntry.getDate());
 
-        final String timestamp = sdfTimestampThreadLocal.get().format(logEntry.getDate());
+        final String timestamp = TIMESTAMP_FORMAT.format(
+            logEntry.getDate().toInstant().atZone(ZoneId.systemDefault()));
         final String year = timestamp.substring(0, 4);
         final String inceptionYear = currentProperties.get(INCEPTION_YEAR_KEY);
 
@@ -129,33 +154,53 @@ public class SVNPropertiesProvider implements PropertiesProvider {
     };
 
     try {
-      // One-time warning, skip, or failure for shallow/sparse repo
-      if ((mojo.warnIfShallow || mojo.skipOnShallow || mojo.failOnShallow) && !warnedIfShallow.get()) {
-        SVNInfo info = svnClientManager.getWCClient().doInfo(documentFile, SVNRevision.HEAD);
-        if (info.getDepth() != SVNDepth.INFINITY && warnedIfShallow.compareAndSet(false, true)) {
-          if (mojo.warnIfShallow) {
-            mojo.warn("Sparse svn repository detected. Year property values may not be accurate.");
-          }
-          if (mojo.skipOnShallow) {
-            throw new ShallowRepositorySkipException(
-                "Sparse svn repository detected. Skipping plugin execution.");
-          }
-          if (mojo.failOnShallow) {
-            throw new ShallowRepositoryException(
-                "Sparse svn repository detected while 'license.failOnShallow' is enabled. Year property values may "
-                    + "not be accurate. To proceed, perform a non-sparse checkout (or set the working copy depth to "
-                    + "INFINITY), or disable 'license.failOnShallow' if you accept potentially inaccurate year data.");
-          }
-        }
-      }
+      checkDepth(mojo, svnClientManager, documentFile, true);
 
       svnClientManager.getLogClient()
           .doLog(new File[]{documentFile}, SVNRevision.HEAD, SVNRevision.create(0), true, true, 1,
               lastChangeDateLogEntryHandler);
     } catch (SVNException e) {
       throw new IllegalStateException("cannot query SVN latest date information for file: " + documentFile, e);
+    } finally {
+      clients.offer(svnClientManager);
     }
 
     return newProperties;
   }
+
+  /**
+   * One-time warning, skip, or failure for shallow/sparse repo.
+   */
+  private void checkDepth(AbstractLicenseMojo mojo, SVNClientManager svnClientManager, File file, boolean warn)
+      throws SVNException {
+    if ((warn && mojo.warnIfShallow || mojo.skipOnShallow || mojo.failOnShallow) && !warnedIfShallow.get()) {
+      SVNInfo info = svnClientManager.getWCClient().doInfo(file, SVNRevision.HEAD);
+      if (info.getDepth() != SVNDepth.INFINITY && warnedIfShallow.compareAndSet(false, true)) {
+        if (warn && mojo.warnIfShallow) {
+          mojo.warn("Sparse svn repository detected. Year property values may not be accurate.");
+        }
+        if (mojo.skipOnShallow) {
+          throw new ShallowRepositorySkipException(
+              "Sparse svn repository detected. Skipping plugin execution.");
+        }
+        if (mojo.failOnShallow) {
+          throw new ShallowRepositoryException(
+              "Sparse svn repository detected while 'license.failOnShallow' is enabled. Year property values may "
+                  + "not be accurate. To proceed, perform a non-sparse checkout (or set the working copy depth to "
+                  + "INFINITY), or disable 'license.failOnShallow' if you accept potentially inaccurate year data.");
+        }
+      }
+    }
+  }
+
+  private SVNClientManager acquireClient() {
+    SVNClientManager svnClientManager = clients.poll();
+    if (svnClientManager != null) {
+      return svnClientManager;
+    }
+    return svnCredentials == null ?
+        SVNClientManager.newInstance(new DefaultSVNOptions()) :
+        SVNClientManager.newInstance(new DefaultSVNOptions(), svnCredentials.getLogin(),
+            svnCredentials.getPassword());
+  }
 }
@@ -35,6 +35,7 @@ import org.apache.maven.execution.MavenSession;
 import org.apache.maven.model.Organization;
 import org.apache.maven.plugin.AbstractMojo;
 import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.MojoExecution;
 import org.apache.maven.plugin.MojoFailureException;
 import org.apache.maven.plugins.annotations.Parameter;
 import org.apache.maven.project.MavenProject;
@@ -51,12 +52,18 @@ import org.xml.sax.InputSource;
 import java.io.File;
 import java.io.IOException;
 import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
 import java.time.Clock;
+import java.time.LocalDate;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Deque;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
@@ -65,12 +72,21 @@ import java.util.Objects;
 import java.util.ServiceLoader;
 import java.util.Set;
 import java.util.TreeMap;
+import java.util.TreeSet;
 import java.util.concurrent.CompletionService;
 import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorCompletionService;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiPredicate;
+import java.util.function.Predicate;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
 import javax.inject.Inject;
@@ -84,6 +100,13 @@ import static java.util.Arrays.deepToString;
 public abstract class AbstractLicenseMojo extends AbstractMojo {
 
   private static final String[] DEFAULT_KEYWORDS = {"copyright"};
+  private static final Pattern PLACEHOLDER = Pattern.compile("\\$\\{([^}]+)}");
+
+  /**
+   * Number of selected files, per execution thread, which can wait to be processed before the scan of the base
+   * directory pauses.
+   */
+  private static final int QUEUED_FILES_PER_THREAD = 64;
 
   @Parameter(property = "license.licenseSets", alias = "licenseSets")
   public LicenseSet[] licenseSets;
@@ -252,6 +275,16 @@ public abstract class AbstractLicenseMojo extends AbstractMojo {
   @Parameter(property = "license.aggregate", defaultValue = "false")
   public boolean aggregate;
 
+  /**
+   * With {@link #aggregate}, processes the files of the modules of the reactor on their behalf: their files are
+   * selected with a single scan, their headers are rendered with their own project properties, each of them gets its
+   * own report, and their own executions of the same goal are skipped. The modules with another effective
+   * configuration of the plugin execution, e.g. from an active profile, are left to their own executions, with the
+   * modules below them.
+   */
+  @Parameter(property = "license.aggregateModules", defaultValue = "false")
+  public boolean aggregateModules;
+
   /**
    * Set mapping between document mapping and a supported type to use. This
    * section is very useful when you want to customize the supported
@@ -293,6 +326,48 @@ public abstract class AbstractLicenseMojo extends AbstractMojo {
   @Parameter(property = "license.nThreads", defaultValue = "0")
   public int nThreads;
 
+  /**
+   * Whether to scan the base directory for files with several threads (as many as used to check the headers) instead
+   * of one. The same files are selected either way, but scanning in parallel is faster on large trees or on network
+   * file systems.
+   * <p>
+   * The default is false.
+   */
+  @Parameter(property = "license.parallelScan", defaultValue = "false")
+  public boolean parallelScan;
+
+  /**
+   * Whether to process the files on virtual threads instead of a pool of platform threads, when running on Java 21 or
+   * later. No more files than the number of threads computed from <code>nThreads</code> or
+   * <code>concurrencyFactor</code> are processed at the same time, but this number can be raised cheaply, which helps
+   * when properties providers spend most of their time waiting for a repository, like the SVN one.
+   * <p>
+   * Ignored with a warning on older Java versions. The default is false.
+   */
+  @Parameter(property = "license.virtualThreads", defaultValue = "false")
+  public boolean virtualThreads;
+
+  /**
+   * Whether to process the files on a pool of threads shared by all the executions of the plugin in the build, instead
+   * of a pool per execution and license set. In a parallel build (<code>mvn -T</code>), this keeps the number of
+   * threads checking headers to the largest one computed from <code>nThreads</code> or <code>concurrencyFactor</code>
+   * by the executions, whatever the number of modules built at the same time, and the executions get their files
+   * processed in turn. The pool is stopped at the end of the build.
+   * <p>
+   * When enabled, <code>virtualThreads</code> is ignored. The default is false.
+   */
+  @Parameter(property = "license.sharedPool", defaultValue = "false")
+  public boolean sharedPool;
+
+  /**
+   * Only process one part of the selected files, given as <code>&lt;index&gt;/&lt;count&gt;</code> with an index
+   * starting at 1, so that <code>count</code> machines can each check one part of the same project. The files are
+   * split by a hash of their path relative to the base directory of their license set, which is the same on every
+   * machine. The reports of all the parts can then be combined by the <code>merge-reports</code> goal.
+   */
+  @Parameter(property = "license.shard")
+  public String shard;
+
   /** Whether to skip the plugin execution. */
   @Parameter(property = "license.skip", defaultValue = "false")
   public boolean skip;
@@ -461,6 +536,9 @@ public abstract class AbstractLicenseMojo extends AbstractMojo {
   @Parameter(defaultValue = "${session}")
   public MavenSession session;
 
+  @Parameter(defaultValue = "${mojoExecution}", readonly = true)
+  protected MojoExecution mojoExecution;
+
   /**
    * The location where to write the report of the plugin execution (file processed, action taken, etc).
    * <p>
@@ -504,6 +582,7 @@ public abstract class AbstractLicenseMojo extends AbstractMojo {
 
   protected Clock clock = Clock.systemUTC();
   protected Report report;
+  private AggregatedModules aggregatedModules;
 
   protected abstract class AbstractCallback implements Callback {
 
@@ -533,8 +612,12 @@ public abstract class AbstractLicenseMojo extends AbstractMojo {
   }
 
   protected final void execute(final Callback callback) throws MojoExecutionException, MojoFailureException {
+    final MavenProject aggregator = skip ? null : AggregatedModules.findAggregator(session, mojoExecution, project);
     if (skip) {
         getLog().info("License Plugin is Skipped");
+    } else if (aggregator != null) {
+      info("Skipping %s: its files are processed by the aggregate execution of %s", project.getArtifactId(),
+          aggregator.getArtifactId());
     } else {
       if (prohibitLegacyUse && detectLegacyUse()) {
         throw new MojoExecutionException("Use of legacy parameters has been prohibited by configuration.");
@@ -559,6 +642,10 @@ public abstract class AbstractLicenseMojo extends AbstractMojo {
         allLicenseSets = licenseSets;
       }
 
+      if (aggregate && aggregateModules && project != null && project.getBasedir() != null) {
+        aggregatedModules = AggregatedModules.of(session, mojoExecution, project);
+      }
+
       // execute
       try {
         executeForLicenseSets(allLicenseSets, callback);
@@ -569,6 +656,13 @@ public abstract class AbstractLicenseMojo extends AbstractMojo {
 
       info("%s", report.getSummary());
       report.exportTo(reportLocation);
+      if (aggregatedModules != null) {
+        for (final Map.Entry<MavenProject, Report> entry
+            : report.splitByModule(aggregatedModules.getAggregated()).entrySet()) {
+          info("%s: %s", entry.getKey().getArtifactId(), entry.getValue().getSummary());
+          entry.getValue().exportTo(AggregatedModules.getReportLocation(project, entry.getKey(), reportLocation));
+        }
+      }
     }
   }
 
@@ -604,9 +698,42 @@ public abstract class AbstractLicenseMojo extends AbstractMojo {
       warn("See https://mathieu.carbou.me/license-maven-plugin for more information.");
     }
 
-    // then execute each license set
-    for (final LicenseSet licenseSet : licenseSets) {
-      executeForLicenseSet(licenseSet, callback);
+    final Shard shardToProcess;
+    try {
+      shardToProcess = shard == null || shard.trim().isEmpty() ? null : Shard.parse(shard);
+    } catch (IllegalArgumentException e) {
+      throw new MojoExecutionException(e.getMessage(), e);
+    }
+    if (shardToProcess != null) {
+      info("Processing the files of shard %s", shardToProcess);
+    }
+
+    // then execute the license sets together: the consecutive license sets sharing a base directory scan it once, and
+    // each of their files is read once and processed by all the license sets selecting it, in their order
+    final Map<Map<String, String>, Map<String, PropertiesProvider>> propertiesProviders = new HashMap<>();
+    final int threads = getNumberOfExecutorThreads();
+    ExecutorService executorService = null;
+    try {
+      final List<List<LicenseSetExecution>> runs = new ArrayList<>();
+      for (int i = 0; i < licenseSets.length; i++) {
+        final LicenseSetExecution execution = prepareLicenseSet(licenseSets[i], i, shardToProcess, propertiesProviders);
+        final List<LicenseSetExecution> run = runs.isEmpty() ? null : runs.get(runs.size() - 1);
+        if (run != null && run.get(0).selection.getBasedir().equals(execution.selection.getBasedir())) {
+          run.add(execution);
+        } else {
+          runs.add(new ArrayList<>(asList(execution)));
+        }
+      }
+      executorService = newExecutorService(threads);
+      debug("Number of execution threads: %s", threads);
+      for (final List<LicenseSetExecution> run : runs) {
+        executeForLicenseSets(run, shardToProcess, executorService, threads, callback);
+      }
+    } finally {
+      if (executorService != null) {
+        executorService.shutdownNow();
+      }
+      propertiesProviders.values().forEach(providers -> providers.values().forEach(PropertiesProvider::close));
     }
   }
 
@@ -638,7 +765,15 @@ public abstract class AbstractLicenseMojo extends AbstractMojo {
     return legacyLicenseSet;
   }
 
-  private void executeForLicenseSet(final LicenseSet licenseSet, final Callback callback) throws MojoExecutionException, MojoFailureException {
+  /**
+   * Prepares the processing of the files of a license set. The properties providers are shared by the license sets
+   * having the same properties.
+   *
+   * @param propertiesProviders the properties providers already initialized, by properties and class name
+   */
+  private LicenseSetExecution prepareLicenseSet(final LicenseSet licenseSet, final int index, final Shard shard,
+                                                final Map<Map<String, String>, Map<String, PropertiesProvider>> propertiesProviders)
+      throws MojoExecutionException, MojoFailureException {
     final ResourceFinder finder = new ResourceFinder(firstNonNull(asPath(licenseSet.basedir), asPath(defaultBasedir)));
     try {
       finder.setCompileClassPath(project.getCompileClasspathElements());
@@ -661,14 +796,12 @@ public abstract class AbstractLicenseMojo extends AbstractMojo {
       validHeaders.add(new Header(validHeaderSource, licenseSet.headerSections));
     }
 
-    Map<String, String> globalProperties = getDefaultProperties();
-
-    // we override by properties in the licenseSet
-    if (licenseSet.properties != null) {
-      for (Map.Entry<String, String> entry : licenseSet.properties.entrySet()) {
-        if (!System.getProperties().contains(entry.getKey())) {
-          globalProperties.put(entry.getKey(), entry.getValue());
-        }
+    final Map<String, String> globalProperties = getLicenseSetProperties(project, licenseSet);
+    // the documents of the aggregated modules are rendered with the properties of their own project
+    final Map<MavenProject, Map<String, String>> moduleProperties = new LinkedHashMap<>();
+    if (aggregatedModules != null) {
+      for (final MavenProject module : aggregatedModules.getAggregated()) {
+        moduleProperties.put(module, getLicenseSetProperties(module, licenseSet));
       }
     }
 
@@ -678,139 +811,449 @@ public abstract class AbstractLicenseMojo extends AbstractMojo {
               .collect(Collectors.joining("\n - ")));
     }
 
-    final List<PropertiesProvider> propertiesProviders = new LinkedList<>();
-    int threads = getNumberOfExecutorThreads();
-    ExecutorService executorService = Executors.newFixedThreadPool(threads);
+    final List<PropertiesProvider> licenseSetProviders = new LinkedList<>();
+    final Map<String, PropertiesProvider> initializedProviders =
+        propertiesProviders.computeIfAbsent(globalProperties, k -> new HashMap<>());
+    final Set<String> referencedProperties = findReferencedProperties(header, validHeaders,
+        licenseSet.headerSections, globalProperties);
+    for (final PropertiesProvider provider : ServiceLoader.load(PropertiesProvider.class,
+        Thread.currentThread().getContextClassLoader())) {
+      final Set<String> providedProperties = provider.getPropertyKeys();
+      final boolean unused = referencedProperties != null && providedProperties != null
+          && Collections.disjoint(referencedProperties, providedProperties);
+      final PropertiesProvider initialized = initializedProviders.get(provider.getClass().getName());
+      if (initialized != null) {
+        if (!unused) {
+          licenseSetProviders.add(initialized);
+        }
+        continue;
+      }
+      try {
+        if (unused) {
+          debug("Skipping properties provider %s: none of its properties is used by the headers",
+              provider.getClass().getName());
+          // the environment is still validated, so that e.g. a shallow clone fails the build as it would otherwise
+          provider.checkEnvironment(this, globalProperties);
+          continue;
+        }
+        provider.init(this, globalProperties);
+      } catch (ShallowRepositorySkipException e) {
+        // ShallowRepositorySkipException must be checked before ShallowRepositoryException
+        // (its parent class). Skip propagates to execute() for graceful bypass.
+        throw e;
+      } catch (ShallowRepositoryException e) {
+        throw new MojoFailureException(e.getMessage(), e);
+      }
+      initializedProviders.put(provider.getClass().getName(), provider);
+      licenseSetProviders.add(provider);
+    }
 
-    try {
+    final DocumentPropertiesLoader perDocumentProperties = document -> {
+
+      // then add per document properties
+      LazyMap<String, String> perDoc = new LazyMap<>(key -> {
+        if (Objects.equals(key, "file.name")) {
+          return document.getFile().getName();
+        }
+        final MavenProject module = aggregatedModules == null ? null : aggregatedModules.getModule(document.getFile());
+        return (module == null ? globalProperties : moduleProperties.get(module)).get(key);
+      });
+
+      Map<String, String> readOnly = Collections.unmodifiableMap(perDoc);
 
-      for (final PropertiesProvider provider : ServiceLoader.load(PropertiesProvider.class,
-          Thread.currentThread().getContextClassLoader())) {
+      for (final PropertiesProvider provider : licenseSetProviders) {
         try {
-          provider.init(this, globalProperties);
-        } catch (ShallowRepositorySkipException e) {
-          // ShallowRepositorySkipException must be checked before ShallowRepositoryException
-          // (its parent class). Skip propagates to execute() for graceful bypass.
-          throw e;
+          final Map<String, String> adjustments = provider.adjustProperties(
+              AbstractLicenseMojo.this, readOnly, document);
+          if (getLog().isDebugEnabled()) {
+            getLog().debug("provider: " + provider.getClass() + " adjusted these properties:\n"
+                + adjustments);
+          }
+          for (String key : adjustments.keySet()) {
+            perDoc.putSupplier(key, () -> adjustments.get(key));
+          }
         } catch (ShallowRepositoryException e) {
-          throw new MojoFailureException(e.getMessage(), e);
+          // Re-throw both ShallowRepositoryException and its subclass ShallowRepositorySkipException
+          // to escape the catch(Exception) block below that would otherwise swallow them.
+          // ShallowRepositorySkipException propagates to execute() for skip handling;
+          // ShallowRepositoryException propagates to the completion loop for fail handling.
+          throw e;
+        } catch (Exception e) {
+          if (getLog().isWarnEnabled()) {
+            getLog().warn("failure occurred while calling " + provider.getClass(), e);
+          }
         }
-        propertiesProviders.add(provider);
       }
 
-      final DocumentPropertiesLoader perDocumentProperties = document -> {
+      if (getLog().isDebugEnabled()) {
+        getLog().debug("properties for " + document + ":\n - " + perDoc.entrySet().stream()
+            .map(Objects::toString).collect(Collectors.joining("\n - ")));
+      }
+
+      return perDoc;
+    };
 
-        // then add per document properties
-        LazyMap<String, String> perDoc = new LazyMap<>(key -> {
-          return Objects.equals(key, "file.name") ? document.getFile().getName() : globalProperties.get(key);
-        });
+    final Map<String, String> extensionMapping = buildMapping();
+    final Map<String, HeaderDefinition> headerDefinitions = buildHeaderDefinitions(licenseSet, finder);
+    final DocumentFactory documentFactory = new DocumentFactory(
+        firstNonNull(licenseSet.basedir, defaultBasedir), extensionMapping,
+        headerDefinitions, Charset.forName(encoding), licenseSet.keywords,
+        perDocumentProperties);
+
+    final File incrementalStateDirectory = getIncrementalStateDirectory();
+    final IncrementalCheckState incrementalState;
+    if (incrementalStateDirectory == null) {
+      incrementalState = null;
+    } else {
+      final String fingerprint = buildConfigurationFingerprint(licenseSet, header, validHeaders, extensionMapping,
+          headerDefinitions, globalProperties, moduleProperties, licenseSetProviders);
+      incrementalState = IncrementalCheckState.load(
+          new File(incrementalStateDirectory, "license-set-" + index
+              + (shard == null ? "" : "-shard-" + shard.toString().replace('/', '-')) + ".state").toPath(), fingerprint);
+      debug("Incremental state: %d files with a valid header in the previous check", incrementalState.size());
+    }
 
-        Map<String, String> readOnly = Collections.unmodifiableMap(perDoc);
+    final boolean useDefaultExcludes = (licenseSet.useDefaultExcludes != null ? licenseSet.useDefaultExcludes : defaultUseDefaultExcludes);
+    final Selection selection = new Selection(
+        firstNonNull(licenseSet.basedir, defaultBasedir), licenseSet.includes, buildExcludes(licenseSet),
+        useDefaultExcludes, parallelScan ? getNumberOfExecutorThreads() : 0, getLog());
+    debug("From: %s", selection.getBasedir());
+    debug("Including: %s", deepToString(selection.getIncluded()));
+    debug("Excluding: %s", deepToString(selection.getExcluded()));
+
+    Set<String> candidates = null;
+    for (final FileSelectionProvider provider : ServiceLoader.load(FileSelectionProvider.class,
+        Thread.currentThread().getContextClassLoader())) {
+      final Collection<String> files = provider.getCandidateFiles(this, globalProperties, selection.getBasedir());
+      if (files != null) {
+        debug("%d candidate files from %s", files.size(), provider.getClass().getName());
+        if (candidates == null) {
+          candidates = new HashSet<>(files);
+        } else {
+          candidates.retainAll(files);
+        }
+      }
+    }
+
+    return new LicenseSetExecution(header, validHeaders, documentFactory, selection, candidates, incrementalState);
+  }
+
+  /**
+   * Processes the files of license sets sharing the same base directory.
+   *
+   * @param shard the part of the files to process, or null to process all of them
+   */
+  private void executeForLicenseSets(final List<LicenseSetExecution> executions, final Shard shard,
+                                     final ExecutorService executorService, final int threads, final Callback callback)
+      throws MojoExecutionException, MojoFailureException {
+    final CompletionService<Void> completionService = new ExecutorCompletionService<>(executorService);
+    // files are processed while the base directory is scanned, up to this number of files ahead of the checks
+    final Semaphore queuedFiles = new Semaphore(threads * QUEUED_FILES_PER_THREAD);
+    // virtual threads are not pooled: this bounds the number of files processed at the same time
+    final Semaphore runningFiles = new Semaphore(threads);
+    final AtomicInteger pending = new AtomicInteger();
+    final AtomicReference<ExecutionException> failure = new AtomicReference<>();
+
+    // the first lines of each file are read once for all the headers of the license sets it is matched against
+    int firstLineCount = 0;
+    for (final LicenseSetExecution execution : executions) {
+      firstLineCount = Math.max(firstLineCount, execution.header.getMatchLineCount());
+      for (final Header validHeader : execution.validHeaders) {
+        firstLineCount = Math.max(firstLineCount, validHeader.getMatchLineCount());
+      }
+    }
+    for (final LicenseSetExecution execution : executions) {
+      execution.documentFactory.setFirstLineCount(firstLineCount);
+    }
 
-        for (final PropertiesProvider provider : propertiesProviders) {
+    final boolean scanned = forEachSelectedFile(executions, (file, selecting) -> {
+      if (shard != null && !shard.contains(file)) {
+        return true;
+      }
+      if (!pollCompleted(completionService, pending, failure)) {
+        return false;
+      }
+      try {
+        queuedFiles.acquire();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return false;
+      }
+      pending.incrementAndGet();
+      completionService.submit(() -> {
+        try {
+          runningFiles.acquire();
           try {
-            final Map<String, String> adjustments = provider.adjustProperties(
-                AbstractLicenseMojo.this, readOnly, document);
-            if (getLog().isDebugEnabled()) {
-              getLog().debug("provider: " + provider.getClass() + " adjusted these properties:\n"
-                  + adjustments);
-            }
-            for (String key : adjustments.keySet()) {
-              perDoc.putSupplier(key, () -> adjustments.get(key));
-            }
-          } catch (ShallowRepositoryException e) {
-            // Re-throw both ShallowRepositoryException and its subclass ShallowRepositorySkipException
-            // to escape the catch(Exception) block below that would otherwise swallow them.
-            // ShallowRepositorySkipException propagates to execute() for skip handling;
-            // ShallowRepositoryException propagates to the completion loop for fail handling.
-            throw e;
-          } catch (Exception e) {
-            if (getLog().isWarnEnabled()) {
-              getLog().warn("failure occurred while calling " + provider.getClass(), e);
+            Document previous = null;
+            for (final LicenseSetExecution execution : selecting) {
+              previous = processFile(file, execution, previous, callback);
             }
+          } finally {
+            runningFiles.release();
           }
+        } finally {
+          queuedFiles.release();
         }
+        return null;
+      });
+      return true;
+    });
+
+    ExecutionException error = failure.get();
+    // the scan only stops early on a failure or an interruption, which leaves files unprocessed
+    boolean interrupted = !scanned && error == null;
+    while (error == null && !interrupted && pending.getAndDecrement() > 0) {
+      try {
+        completionService.take().get();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        interrupted = true;
+      } catch (ExecutionException e) {
+        error = e;
+      }
+    }
+    if (error != null) {
+      rethrow(error);
+    }
+    if (interrupted) {
+      throw new MojoExecutionException("Interrupted while processing the files of "
+          + executions.get(0).selection.getBasedir());
+    }
 
-        if (getLog().isDebugEnabled()) {
-          getLog().debug("properties for " + document + ":\n - " + perDoc.entrySet().stream()
-              .map(Objects::toString).collect(Collectors.joining("\n - ")));
+    for (final LicenseSetExecution execution : executions) {
+      if (execution.incrementalState != null) {
+        try {
+          execution.incrementalState.save();
+        } catch (IOException e) {
+          warn("Unable to save the incremental state in %s: %s", getIncrementalStateDirectory(), e.getMessage());
         }
+      }
+    }
+  }
 
-        return perDoc;
-      };
+  /**
+   * @param previous the document of the same file processed by the previous license set, whose content is reused if
+   *                 it was not modified, or null
+   * @return the document of the file
+   */
+  private Document processFile(final String file, final LicenseSetExecution execution, final Document previous,
+                               final Callback callback) {
+    final IncrementalCheckState incrementalState = execution.incrementalState;
+    final Header header = execution.header;
+    final List<Header> validHeaders = execution.validHeaders;
+    // the content read by the previous license set might predate the snapshot of an incremental check
+    final Document document = execution.documentFactory.createDocuments(file, incrementalState == null ? previous : null);
+    if (document.isNotSupported()) {
+      // classified from the file name alone: unknown files are never recorded by the incremental check nor read
+      debug("Selected file: %s [header style: %s]", document.getFilePath(), document.getHeaderDefinition());
+      callback.onUnknownFile(document, header);
+      return document;
+    }
+    if (incrementalState != null && incrementalState.isUnchanged(file, document.getFile())) {
+      debug("Unchanged file: %s", document.getFilePath());
+      callback.onExistingHeader(document, header);
+      return document;
+    }
+    debug("Selected file: %s [header style: %s]", document.getFilePath(),
+        document.getHeaderDefinition());
+    final IncrementalCheckState.Stat snapshot = incrementalState == null ? null : incrementalState.snapshot(document.getFile());
+    if (document.is(header)) {
+      debug("Skipping header file: %s", document.getFilePath());
+    } else if (document.hasHeader(header, strictCheck)) {
+      callback.onExistingHeader(document, header);
+      if (incrementalState != null) {
+        incrementalState.recordPresent(file, document.getFile(), snapshot);
+      }
+    } else {
+      boolean headerFound = false;
+      for (final Header validHeader : validHeaders) {
+        headerFound = document.hasHeader(validHeader, strictCheck);
+        if (headerFound) {
+          callback.onExistingHeader(document, header);
+          if (incrementalState != null) {
+            incrementalState.recordPresent(file, document.getFile(), snapshot);
+          }
+          break;
+        }
+      }
+      if (!headerFound) {
+        callback.onHeaderNotFound(document, header);
+      }
+    }
+    return document;
+  }
 
-      final DocumentFactory documentFactory = new DocumentFactory(
-          firstNonNull(licenseSet.basedir, defaultBasedir), buildMapping(),
-          buildHeaderDefinitions(licenseSet, finder), Charset.forName(encoding), licenseSet.keywords,
-          perDocumentProperties);
+  /**
+   * Takes the results of the files processed so far.
+   *
+   * @return false if the processing of a file failed
+   */
+  private static boolean pollCompleted(final CompletionService<?> completionService, final AtomicInteger pending,
+                                       final AtomicReference<ExecutionException> failure) {
+    Future<?> completed;
+    while ((completed = completionService.poll()) != null) {
+      pending.decrementAndGet();
+      try {
+        completed.get();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return false;
+      } catch (ExecutionException e) {
+        failure.compareAndSet(null, e);
+        return false;
+      }
+    }
+    return failure.get() == null;
+  }
 
-      CompletionService<?> completionService = new ExecutorCompletionService<>(executorService);
-      int count = 0;
-      debug("Number of execution threads: %s", threads);
+  private static void rethrow(final ExecutionException e) throws MojoExecutionException, MojoFailureException {
+    Throwable cause = e.getCause();
+    if (cause instanceof Error) {
+      throw (Error) cause;
+    }
+    if (cause instanceof MojoExecutionException) {
+      throw (MojoExecutionException) cause;
+    }
+    if (cause instanceof MojoFailureException) {
+      throw (MojoFailureException) cause;
+    }
+    // ShallowRepositorySkipException must be checked before ShallowRepositoryException
+    // because it extends ShallowRepositoryException. Skip signals graceful bypass;
+    // fail signals a hard build failure.
+    if (cause instanceof ShallowRepositorySkipException) {
+      throw (ShallowRepositorySkipException) cause;
+    }
+    if (cause instanceof ShallowRepositoryException) {
+      throw new MojoFailureException(cause.getMessage(), cause);
+    }
+    if (cause instanceof RuntimeException) {
+      throw (RuntimeException) cause;
+    }
+    throw new RuntimeException(cause.getMessage(), cause);
+  }
 
-      for (final String file : listSelectedFiles(licenseSet)) {
-        completionService.submit(() -> {
-          Document document = documentFactory.createDocuments(file);
-          debug("Selected file: %s [header style: %s]", document.getFilePath(),
-              document.getHeaderDefinition());
-          if (document.isNotSupported()) {
-            callback.onUnknownFile(document, header);
-          } else if (document.is(header)) {
-            debug("Skipping header file: %s", document.getFilePath());
-          } else if (document.hasHeader(header, strictCheck)) {
-            callback.onExistingHeader(document, header);
-          } else {
-            boolean headerFound = false;
-            for (final Header validHeader : validHeaders) {
-              headerFound = document.hasHeader(validHeader, strictCheck);
-              if (headerFound) {
-                callback.onExistingHeader(document, header);
-                break;
-              }
-            }
-            if (!headerFound) {
-              callback.onHeaderNotFound(document, header);
-            }
-          }
-        }, null);
-        count++;
+  /**
+   * Returns the directory where the files found with a valid header are remembered between executions, so that they
+   * are not checked again while unchanged, or null to check all the files.
+   */
+  protected File getIncrementalStateDirectory() {
+    return null;
+  }
+
+  private String buildConfigurationFingerprint(final LicenseSet licenseSet, final Header header,
+                                               final List<Header> validHeaders, final Map<String, String> extensionMapping,
+                                               final Map<String, HeaderDefinition> headerDefinitions,
+                                               final Map<String, String> properties,
+                                               final Map<MavenProject, Map<String, String>> moduleProperties,
+                                               final List<PropertiesProvider> propertiesProviders) {
+    final List<String> parts = new ArrayList<>();
+    final Set<String> placeholders = new TreeSet<>();
+    parts.add("header=" + header.asString());
+    collectPlaceholders(header.asString(), placeholders);
+    for (Header validHeader : validHeaders) {
+      parts.add("validHeader=" + validHeader.asString());
+      collectPlaceholders(validHeader.asString(), placeholders);
+    }
+    if (licenseSet.headerSections != null) {
+      for (HeaderSection section : licenseSet.headerSections) {
+        parts.add("section=" + asList(section.getKey(), section.getDefaultValue(), section.getEnsureMatch(),
+            section.isMultiLineMatch()));
+        collectPlaceholders(section.getDefaultValue(), placeholders);
       }
+    }
+    for (HeaderDefinition definition : new TreeMap<>(headerDefinitions).values()) {
+      parts.add("definition=" + asList(definition.getType(), definition.getFirstLine(), definition.getBeforeEachLine(),
+          definition.getEndLine(), definition.getAfterEachLine(), definition.getSkipLinePattern(),
+          definition.getFirstLineDetectionPattern(), definition.getLastLineDetectionPattern(),
+          definition.allowBlankLines(), definition.isMultiLine(), definition.isPadLines(),
+          definition.getSkipLineLookahead()));
+    }
+    parts.add("mapping=" + extensionMapping);
+    parts.add("properties=" + getUsedProperties(properties, placeholders));
+    for (Map.Entry<MavenProject, Map<String, String>> entry : moduleProperties.entrySet()) {
+      parts.add("module=" + entry.getKey().getBasedir() + ":" + getUsedProperties(entry.getValue(), placeholders));
+    }
+    parts.add("providers=" + propertiesProviders.stream().map(p -> p.getClass().getName()).collect(Collectors.toList()));
+    parts.add("keywords=" + deepToString(licenseSet.keywords));
+    parts.add("strictCheck=" + strictCheck);
+    parts.add("skipExistingHeaders=" + skipExistingHeaders);
+    parts.add("encoding=" + encoding);
+    // properties providers compute copyright years relative to the current one
+    parts.add("year=" + LocalDate.now(clock).getYear());
+
+    final MessageDigest digest = IncrementalCheckState.newDigest();
+    for (String part : parts) {
+      digest.update(part.getBytes(StandardCharsets.UTF_8));
+      digest.update((byte) 0);
+    }
+    return IncrementalCheckState.toHex(digest.digest());
+  }
 
-      while (count-- > 0) {
-        try {
-          completionService.take().get();
-        } catch (InterruptedException e) {
-          Thread.currentThread().interrupt();
-        } catch (ExecutionException e) {
-          Throwable cause = e.getCause();
-          if (cause instanceof Error) {
-            throw (Error) cause;
-          }
-          if (cause instanceof MojoExecutionException) {
-            throw (MojoExecutionException) cause;
-          }
-          if (cause instanceof MojoFailureException) {
-            throw (MojoFailureException) cause;
-          }
-          // ShallowRepositorySkipException must be checked before ShallowRepositoryException
-          // because it extends ShallowRepositoryException. Skip signals graceful bypass;
-          // fail signals a hard build failure.
-          if (cause instanceof ShallowRepositorySkipException) {
-            throw (ShallowRepositorySkipException) cause;
-          }
-          if (cause instanceof ShallowRepositoryException) {
-            throw new MojoFailureException(cause.getMessage(), cause);
-          }
-          if (cause instanceof RuntimeException) {
-            throw (RuntimeException) cause;
+  /**
+   * Returns only the properties which can end up in a header, or configure a properties provider.
+   */
+  private static Map<String, String> getUsedProperties(final Map<String, String> properties,
+                                                       final Set<String> placeholders) {
+    final Map<String, String> usedProperties = new TreeMap<>();
+    for (Map.Entry<String, String> entry : properties.entrySet()) {
+      if (placeholders.contains(entry.getKey()) || entry.getKey().startsWith("license.")) {
+        usedProperties.put(entry.getKey(), entry.getValue());
+      }
+    }
+    return usedProperties;
+  }
+
+  /**
+   * Returns the keys of the properties which may be resolved while rendering the given headers, including the ones
+   * referenced by the values of the global properties, or null if they cannot be determined.
+   */
+  private static Set<String> findReferencedProperties(final Header header, final List<Header> validHeaders,
+                                                      final HeaderSection[] sections,
+                                                      final Map<String, String> properties) {
+    final Deque<String> texts = new ArrayDeque<>();
+    texts.add(header.asString());
+    for (Header validHeader : validHeaders) {
+      texts.add(validHeader.asString());
+    }
+    if (sections != null) {
+      for (HeaderSection section : sections) {
+        if (section.getDefaultValue() != null) {
+          texts.add(section.getDefaultValue());
+        }
+      }
+    }
+    final Set<String> keys = new HashSet<>();
+    while (!texts.isEmpty()) {
+      final Matcher matcher = PLACEHOLDER.matcher(texts.poll());
+      while (matcher.find()) {
+        final List<String> candidates = new ArrayList<>(2);
+        final String placeholder = matcher.group(1);
+        if (placeholder.contains("${")) {
+          // nested placeholders: the key is only known once resolved
+          return null;
+        }
+        candidates.add(placeholder);
+        final int separator = placeholder.indexOf(':');
+        if (separator != -1) {
+          candidates.add(placeholder.substring(0, separator));
+          texts.add(placeholder.substring(separator + 1));
+        }
+        for (String key : candidates) {
+          if (keys.add(key) && properties.get(key) != null) {
+            texts.add(properties.get(key));
           }
-          throw new RuntimeException(cause.getMessage(), cause);
         }
       }
+    }
+    return keys;
+  }
 
-    } finally {
-      executorService.shutdownNow();
-      propertiesProviders.forEach(PropertiesProvider::close);
+  private static void collectPlaceholders(final String text, final Set<String> placeholders) {
+    if (text != null) {
+      final Matcher matcher = PLACEHOLDER.matcher(text);
+      while (matcher.find()) {
+        placeholders.add(matcher.group(1));
+      }
     }
   }
 
@@ -822,13 +1265,53 @@ public abstract class AbstractLicenseMojo extends AbstractMojo {
         ) || (licenseSet.header != null || (licenseSet.inlineHeader != null && !licenseSet.inlineHeader.isEmpty()));
   }
 
+  /**
+   * @return a pool of this number of platform threads, an executor starting a virtual thread per file if
+   * {@link #virtualThreads} is enabled and supported by the running Java version, or a lane of the pool shared in the
+   * session if {@link #sharedPool} is enabled
+   */
+  ExecutorService newExecutorService(int threads) {
+    if (sharedPool) {
+      final SharedExecutor sharedExecutor = SharedExecutor.of(session);
+      if (sharedExecutor != null) {
+        final ExecutorService lane = sharedExecutor.open(threads);
+        debug("Sharing %d threads with the other executions of the build", sharedExecutor.getThreads());
+        return lane;
+      }
+    }
+    if (virtualThreads) {
+      try {
+        // Java 21+, looked up at runtime since the plugin also runs on Java 11
+        return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+      } catch (ReflectiveOperationException e) {
+        warn("Virtual threads are not supported by Java %s: using %d platform threads",
+            System.getProperty("java.version"), threads);
+      }
+    }
+    return Executors.newFixedThreadPool(threads);
+  }
+
   private int getNumberOfExecutorThreads() {
     return nThreads > 0 ?
         nThreads :
         Math.max(1, (int) (Runtime.getRuntime().availableProcessors() * concurrencyFactor));
   }
 
-  private Map<String, String> getDefaultProperties() {
+  private Map<String, String> getLicenseSetProperties(final MavenProject project, final LicenseSet licenseSet) {
+    final Map<String, String> properties = getDefaultProperties(project);
+
+    // we override by properties in the licenseSet
+    if (licenseSet.properties != null) {
+      for (Map.Entry<String, String> entry : licenseSet.properties.entrySet()) {
+        if (!System.getProperties().contains(entry.getKey())) {
+          properties.put(entry.getKey(), entry.getValue());
+        }
+      }
+    }
+    return properties;
+  }
+
+  private Map<String, String> getDefaultProperties(final MavenProject project) {
     // first put system environment
     Map<String, String> props = new TreeMap<>(
         System.getenv()); // treemap just to have nice debug logs
@@ -861,15 +1344,51 @@ public abstract class AbstractLicenseMojo extends AbstractMojo {
     return props;
   }
 
-  private String[] listSelectedFiles(final LicenseSet licenseSet) {
-    final boolean useDefaultExcludes = (licenseSet.useDefaultExcludes != null ? licenseSet.useDefaultExcludes : defaultUseDefaultExcludes);
-    final Selection selection = new Selection(
-        firstNonNull(licenseSet.basedir, defaultBasedir), licenseSet.includes, buildExcludes(licenseSet), useDefaultExcludes,
-        getLog());
-    debug("From: %s", firstNonNull(licenseSet.basedir, defaultBasedir));
-    debug("Including: %s", deepToString(selection.getIncluded()));
-    debug("Excluding: %s", deepToString(selection.getExcluded()));
-    return selection.getSelectedFiles();
+  /**
+   * Scans the base directory shared by the given license sets once, giving each selected file to the consumer with
+   * the license sets selecting it.
+   *
+   * @return false if the scan was stopped by the consumer
+   */
+  private boolean forEachSelectedFile(final List<LicenseSetExecution> executions,
+                                      final BiPredicate<String, List<LicenseSetExecution>> consumer) {
+    final Selection selection;
+    final Predicate<String> router;
+    if (executions.size() == 1) {
+      selection = executions.get(0).selection;
+      router = file -> consumer.test(file, executions);
+    } else {
+      final List<Selection> selections = new ArrayList<>(executions.size());
+      executions.forEach(execution -> selections.add(execution.selection));
+      selection = Selection.union(selections, parallelScan ? getNumberOfExecutorThreads() : 0, getLog());
+      router = file -> {
+        final List<LicenseSetExecution> selecting = new ArrayList<>(executions.size());
+        for (final LicenseSetExecution execution : executions) {
+          if (execution.selects(file)) {
+            selecting.add(execution);
+          }
+        }
+        return selecting.isEmpty() || consumer.test(file, selecting);
+      };
+    }
+
+    Set<String> candidates = new HashSet<>();
+    for (final LicenseSetExecution execution : executions) {
+      if (execution.candidates == null) {
+        candidates = null;
+        break;
+      }
+      candidates.addAll(execution.candidates);
+    }
+    if (candidates == null) {
+      return selection.forEachSelectedFile(router);
+    }
+    for (final String file : selection.getSelectedFiles(candidates)) {
+      if (!router.test(file)) {
+        return false;
+      }
+    }
+    return true;
   }
 
   private String[] buildExcludes(final LicenseSet licenseSet) {
@@ -880,6 +1399,9 @@ public abstract class AbstractLicenseMojo extends AbstractMojo {
         ex.add(module + "/**");
       }
     }
+    if (aggregatedModules != null) {
+      ex.addAll(aggregatedModules.getExcludes(firstNonNull(licenseSet.basedir, defaultBasedir)));
+    }
     return ex.toArray(new String[ex.size()]);
   }
 
@@ -1004,4 +1526,34 @@ public abstract class AbstractLicenseMojo extends AbstractMojo {
   private static <T> T firstNonNull(final T t1, final T t2) {
     return t1 == null ? t2 : t1;
   }
+
+  /**
+   * What is needed to process the files of a license set, prepared before its base directory is scanned.
+   */
+  private static final class LicenseSetExecution {
+    private final Header header;
+    private final List<Header> validHeaders;
+    private final DocumentFactory documentFactory;
+    private final Selection selection;
+    private final Set<String> candidates;
+    private final IncrementalCheckState incrementalState;
+
+    private LicenseSetExecution(Header header, List<Header> validHeaders, DocumentFactory documentFactory,
+                                Selection selection, Set<String> candidates, IncrementalCheckState incrementalState) {
+      this.header = header;
+      this.validHeaders = validHeaders;
+      this.documentFactory = documentFactory;
+      this.selection = selection;
+      this.candidates = candidates;
+      this.incrementalState = incrementalState;
+    }
+
+    /**
+     * @param file path relative to the base directory, with native separators
+     */
+    private boolean selects(String file) {
+      return selection.isSelected(file)
+          && (candidates == null || candidates.contains(file.replace(File.separatorChar, '/')));
+    }
+  }
 }
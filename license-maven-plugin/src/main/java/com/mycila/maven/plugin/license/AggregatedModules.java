@@ -0,0 +1,264 @@
+/*
+ * Copyright (C) 2008-2025 Mycila (mathieu.carbou@gmail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.mycila.maven.plugin.license;
+
+import org.apache.maven.execution.MavenSession;
+import org.apache.maven.model.Plugin;
+import org.apache.maven.model.PluginExecution;
+import org.apache.maven.model.Reporting;
+import org.apache.maven.plugin.MojoExecution;
+import org.apache.maven.project.MavenProject;
+import org.codehaus.plexus.util.xml.Xpp3Dom;
+
+import java.io.File;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * The modules of the reactor whose files are processed by the execution of a parent project having both
+ * {@link AbstractLicenseMojo#aggregate} and {@link AbstractLicenseMojo#aggregateModules} enabled.
+ * <p>
+ * Which execution processes the files of a module is decided from the effective models of the reactor projects only,
+ * so that every execution comes to the same decision whatever the order in which the projects are built: the files of
+ * a module are processed by the outermost aggregating parent, provided that neither the module nor the projects
+ * between them have another effective configuration of the same plugin execution, e.g. from an active profile, their
+ * own POM or a different plugin management. The executions of the same goal in the aggregated modules are skipped,
+ * while the modules with another configuration, and the modules below them, are left to their own executions.
+ */
+final class AggregatedModules {
+
+  static final String PLUGIN_KEY = Plugin.constructKey("com.mycila", "license-maven-plugin");
+
+  private static final String CLI_EXECUTION_ID = "default-cli";
+
+  private final List<MavenProject> aggregated = new ArrayList<>();
+  private final List<MavenProject> separate = new ArrayList<>();
+
+  private AggregatedModules(MavenSession session, MojoExecution execution, MavenProject root) {
+    final Path rootPath = basePath(root);
+    for (final MavenProject module : getReactor(session)) {
+      final Path path = basePath(module);
+      if (path.equals(rootPath) || !path.startsWith(rootPath)) {
+        continue;
+      }
+      if (findAggregator(session, execution, module) == root) {
+        aggregated.add(module);
+      } else if (separate.stream().noneMatch(other -> path.startsWith(basePath(other)))) {
+        separate.add(module);
+      }
+    }
+  }
+
+  /**
+   * @param execution the execution of the goal in the root project, or null for an invocation from the command line
+   * @return the modules below the root project whose files are processed by this execution
+   */
+  static AggregatedModules of(MavenSession session, MojoExecution execution, MavenProject root) {
+    return new AggregatedModules(session, execution, root);
+  }
+
+  /**
+   * @param execution the execution of the goal in the project, or null for an invocation from the command line
+   * @return the parent project whose execution of the same goal processes the files of this project, or null if they
+   * are processed by the execution of the project itself
+   */
+  static MavenProject findAggregator(MavenSession session, MojoExecution execution, MavenProject project) {
+    if (project == null || project.getBasedir() == null) {
+      return null;
+    }
+    final List<MavenProject> reactor = getReactor(session);
+    final Path path = basePath(project);
+    // outermost first: a parent aggregating the candidate would also aggregate the project
+    for (final MavenProject candidate : reactor) {
+      final Path candidatePath = basePath(candidate);
+      if (!candidatePath.equals(path) && path.startsWith(candidatePath)
+          && isAggregating(session, execution, candidate)
+          && hasSameConfigurationUpTo(reactor, execution, candidate, path)) {
+        return candidate;
+      }
+    }
+    return null;
+  }
+
+  /**
+   * @return the modules whose files are processed by the aggregating execution
+   */
+  List<MavenProject> getAggregated() {
+    return Collections.unmodifiableList(aggregated);
+  }
+
+  /**
+   * @return the innermost aggregated module containing this file, or null if it belongs to the aggregating project
+   */
+  MavenProject getModule(File file) {
+    final Path path = file.toPath().toAbsolutePath().normalize();
+    MavenProject module = null;
+    for (final MavenProject candidate : aggregated) {
+      if (path.startsWith(basePath(candidate))
+          && (module == null || basePath(candidate).startsWith(basePath(module)))) {
+        module = candidate;
+      }
+    }
+    return module;
+  }
+
+  /**
+   * @param basedir the base directory of a license set
+   * @return the patterns excluding from this base directory the modules which are left to their own executions
+   */
+  List<String> getExcludes(File basedir) {
+    final Path base = basedir.toPath().toAbsolutePath().normalize();
+    final List<String> excludes = new ArrayList<>();
+    for (final MavenProject module : separate) {
+      final Path path = basePath(module);
+      if (path.startsWith(base) && !path.equals(base)) {
+        excludes.add(base.relativize(path).toString().replace(File.separatorChar, '/') + "/**");
+      }
+    }
+    return excludes;
+  }
+
+  /**
+   * @param module             an aggregated module
+   * @param rootReportLocation the report location of the aggregating execution
+   * @return the location of the report of the module, at the same place relatively to its reporting directory as the
+   * aggregating report, or null if the aggregating report is not in the reporting directory of the aggregating project
+   */
+  static File getReportLocation(MavenProject root, MavenProject module, File rootReportLocation) {
+    final String rootReporting = reportingDirectory(root);
+    final String moduleReporting = reportingDirectory(module);
+    if (rootReportLocation == null || rootReporting == null || moduleReporting == null) {
+      return null;
+    }
+    final Path rootPath = Paths.get(rootReporting).toAbsolutePath().normalize();
+    final Path location = rootReportLocation.toPath().toAbsolutePath().normalize();
+    if (!location.startsWith(rootPath)) {
+      return null;
+    }
+    return Paths.get(moduleReporting).resolve(rootPath.relativize(location)).toFile();
+  }
+
+  /**
+   * @return the projects of the reactor, parents first
+   */
+  private static List<MavenProject> getReactor(MavenSession session) {
+    final List<MavenProject> reactor = new ArrayList<>();
+    if (session != null && session.getProjects() != null) {
+      for (final MavenProject project : session.getProjects()) {
+        if (project.getBasedir() != null) {
+          reactor.add(project);
+        }
+      }
+    }
+    reactor.sort(Comparator.comparingInt((MavenProject project) -> basePath(project).getNameCount())
+        .thenComparing(project -> basePath(project).toString()));
+    return reactor;
+  }
+
+  private static boolean isAggregating(MavenSession session, MojoExecution execution, MavenProject project) {
+    final Xpp3Dom configuration = getConfiguration(execution, project);
+    return configuration != null
+        && isEnabled(session, project, configuration, "aggregate", "license.aggregate")
+        && isEnabled(session, project, configuration, "aggregateModules", "license.aggregateModules")
+        && !isEnabled(session, project, configuration, "skip", "license.skip");
+  }
+
+  /**
+   * @return true if the projects from the aggregating one, excluded, to the given path, included, either have the same
+   * effective configuration of the execution as the aggregating project, or do not run it
+   */
+  private static boolean hasSameConfigurationUpTo(List<MavenProject> reactor, MojoExecution execution,
+                                                  MavenProject aggregator, Path path) {
+    final Path aggregatorPath = basePath(aggregator);
+    final Xpp3Dom configuration = getConfiguration(execution, aggregator);
+    for (final MavenProject project : reactor) {
+      final Path projectPath = basePath(project);
+      if (!projectPath.equals(aggregatorPath) && projectPath.startsWith(aggregatorPath) && path.startsWith(projectPath)) {
+        final Xpp3Dom other = getConfiguration(execution, project);
+        if (other != null && !Objects.equals(other, configuration)) {
+          return false;
+        }
+      }
+    }
+    return true;
+  }
+
+  /**
+   * @return the effective configuration of the execution in this project, with the one of the plugin merged in, or
+   * null if the project does not run it
+   */
+  private static Xpp3Dom getConfiguration(MojoExecution execution, MavenProject project) {
+    final String executionId = execution == null ? CLI_EXECUTION_ID : execution.getExecutionId();
+    final Plugin plugin = project.getPlugin(PLUGIN_KEY);
+    if (plugin == null) {
+      // the goals invoked from the command line also run in the projects not configuring the plugin
+      return CLI_EXECUTION_ID.equals(executionId) ? new Xpp3Dom("configuration") : null;
+    }
+    final PluginExecution pluginExecution = plugin.getExecutionsAsMap().get(executionId);
+    if (pluginExecution != null) {
+      if (execution != null && !pluginExecution.getGoals().contains(execution.getGoal())) {
+        return null;
+      }
+      return toDom(pluginExecution.getConfiguration());
+    }
+    return CLI_EXECUTION_ID.equals(executionId) ? toDom(plugin.getConfiguration()) : null;
+  }
+
+  private static Xpp3Dom toDom(Object configuration) {
+    return configuration instanceof Xpp3Dom ? (Xpp3Dom) configuration : new Xpp3Dom("configuration");
+  }
+
+  /**
+   * @return the value of a boolean parameter, resolved from the configuration or its property as Maven does
+   */
+  private static boolean isEnabled(MavenSession session, MavenProject project, Xpp3Dom configuration,
+                                   String parameter, String property) {
+    final Xpp3Dom child = configuration.getChild(parameter);
+    String value = child == null ? "${" + property + "}" : child.getValue();
+    if (value != null && value.startsWith("${") && value.endsWith("}")) {
+      value = getProperty(session, project, value.substring(2, value.length() - 1));
+    }
+    return value != null && Boolean.parseBoolean(value.trim());
+  }
+
+  private static String getProperty(MavenSession session, MavenProject project, String key) {
+    String value = null;
+    if (session != null) {
+      value = session.getUserProperties().getProperty(key);
+      if (value == null) {
+        value = session.getSystemProperties().getProperty(key);
+      }
+    }
+    if (value == null && project.getProperties() != null) {
+      value = project.getProperties().getProperty(key);
+    }
+    return value;
+  }
+
+  private static String reportingDirectory(MavenProject project) {
+    final Reporting reporting = project.getModel() == null ? null : project.getModel().getReporting();
+    return reporting == null ? null : reporting.getOutputDirectory();
+  }
+
+  private static Path basePath(MavenProject project) {
+    return project.getBasedir().toPath().toAbsolutePath().normalize();
+  }
+}
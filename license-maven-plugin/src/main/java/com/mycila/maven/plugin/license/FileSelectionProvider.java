@@ -0,0 +1,42 @@
+/*
+ * Copyright (C) 2008-2025 Mycila (mathieu.carbou@gmail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.mycila.maven.plugin.license;
+
+import org.apache.maven.plugin.MojoExecutionException;
+
+import java.io.File;
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Restricts the files of a license set to a known list of candidates, so that the base directory does not need to be
+ * scanned. The includes and excludes of the license set still apply to the candidates.
+ * <p>
+ * Implementations are discovered with the {@link java.util.ServiceLoader}, like the {@link PropertiesProvider}s.
+ */
+public interface FileSelectionProvider {
+
+  /**
+   * @param mojo              the running mojo
+   * @param currentProperties the global properties of the license set
+   * @param basedir           the base directory of the license set
+   * @return the candidate files, relative to {@code basedir} and delimited by {@code '/'}, or {@code null} if this
+   * provider does not restrict the selection
+   * @throws MojoExecutionException if the candidate files cannot be computed
+   */
+  Collection<String> getCandidateFiles(AbstractLicenseMojo mojo, Map<String, String> currentProperties, File basedir)
+      throws MojoExecutionException;
+}
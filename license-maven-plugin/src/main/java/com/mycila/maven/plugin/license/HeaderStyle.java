@@ -83,6 +83,16 @@ public class HeaderStyle {
   @Parameter
   public String skipLinePattern;
 
+  /**
+   * The number of lines at the top of a file within which the first line matching {@link #skipLinePattern} must be
+   * found. Files with no such line within these lines get their header at their first line, without the rest of the
+   * file being searched, which avoids reading large files without any line to skip.
+   * <p>
+   * Default to 0: the line to skip can be anywhere in the file.
+   */
+  @Parameter
+  public int skipLineLookahead;
+
   /** The regex used to detect the start of a header section or line. */
   @Parameter(required = true)
   public String firstLineDetectionPattern;
@@ -92,6 +102,8 @@ public class HeaderStyle {
   public String lastLineDetectionPattern;
 
   public HeaderDefinition toHeaderDefinition() {
-    return new HeaderDefinition(name, firstLine, beforeEachLine, endLine, afterEachLine, skipLinePattern, firstLineDetectionPattern, lastLineDetectionPattern, allowBlankLines, multiLine, padLines);
+    final HeaderDefinition definition = new HeaderDefinition(name, firstLine, beforeEachLine, endLine, afterEachLine, skipLinePattern, firstLineDetectionPattern, lastLineDetectionPattern, allowBlankLines, multiLine, padLines);
+    definition.setSkipLineLookahead(skipLineLookahead);
+    return definition;
   }
 }
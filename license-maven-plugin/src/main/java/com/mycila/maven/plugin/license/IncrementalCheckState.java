@@ -0,0 +1,270 @@
+/*
+ * Copyright (C) 2008-2025 Mycila (mathieu.carbou@gmail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.mycila.maven.plugin.license;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Remembers, for one license set, the files which had a valid header during the previous check, so that they do not
+ * need to be read again as long as neither they nor the effective configuration changed.
+ * <p>
+ * A file is considered unchanged when its size and modification time are the ones recorded. When only the
+ * modification time differs, the content hash is compared. The whole state is discarded when the configuration
+ * fingerprint it was recorded with does not match the current one.
+ */
+final class IncrementalCheckState {
+
+  private static final String FORMAT = "license-maven-plugin/incremental-check/1";
+
+  /**
+   * Files modified less than this amount of milliseconds before they were recorded might be modified again without
+   * their modification time changing. Their modification time is not recorded so that the next check compares their
+   * content hash.
+   */
+  private static final long RACY_WINDOW_MILLIS = 2000;
+
+  private static final long UNKNOWN_MTIME = -1;
+
+  private final Path stateFile;
+  private final String fingerprint;
+  private final Map<String, Entry> previous;
+  private final Map<String, Entry> current = new ConcurrentHashMap<>();
+
+  private IncrementalCheckState(Path stateFile, String fingerprint, Map<String, Entry> previous) {
+    this.stateFile = stateFile;
+    this.fingerprint = fingerprint;
+    this.previous = previous;
+  }
+
+  /**
+   * Loads the state recorded in the given file. An empty state is returned if the file does not exist, cannot be
+   * read or was recorded with another configuration fingerprint.
+   */
+  static IncrementalCheckState load(Path stateFile, String fingerprint) {
+    Map<String, Entry> entries = new ConcurrentHashMap<>();
+    try (BufferedReader reader = Files.newBufferedReader(stateFile, UTF_8)) {
+      if (FORMAT.equals(reader.readLine()) && fingerprint.equals(reader.readLine())) {
+        String line;
+        while ((line = reader.readLine()) != null) {
+          String[] parts = line.split(" ", 4);
+          if (parts.length != 4) {
+            entries.clear();
+            break;
+          }
+          entries.put(parts[3], new Entry(Long.parseLong(parts[0]), Long.parseLong(parts[1]), parts[2]));
+        }
+      }
+    } catch (NoSuchFileException e) {
+      // first run
+    } catch (IOException | RuntimeException e) {
+      entries.clear();
+    }
+    return new IncrementalCheckState(stateFile, fingerprint, entries);
+  }
+
+  /**
+   * @return the number of files for which the previous check found a valid header
+   */
+  int size() {
+    return previous.size();
+  }
+
+  /**
+   * Tells if the given file had a valid header during the previous check and did not change since. In that case the
+   * file is kept in the state which will be saved.
+   *
+   * @param path the path of the file, relative to the license set base directory
+   * @param file the file
+   * @return true if the file does not need to be checked again
+   */
+  boolean isUnchanged(String path, File file) {
+    Entry entry = previous.get(path);
+    if (entry == null) {
+      return false;
+    }
+    try {
+      Stat stat = Stat.of(file);
+      if (stat.size != entry.size) {
+        return false;
+      }
+      if (stat.mtime == entry.mtime) {
+        current.put(path, entry);
+        return true;
+      }
+      String hash = hash(file);
+      if (hash.equals(entry.hash) && stat.equals(Stat.of(file))) {
+        current.put(path, new Entry(stat.size, stableMtime(stat), hash));
+        return true;
+      }
+    } catch (IOException e) {
+      // let the file be checked, which will report the error
+    }
+    return false;
+  }
+
+  /**
+   * Takes a snapshot of a file before it is checked.
+   *
+   * @return the snapshot to give to {@link #recordPresent(String, File, Stat)}, or null if the file cannot be read
+   */
+  Stat snapshot(File file) {
+    try {
+      return Stat.of(file);
+    } catch (IOException e) {
+      return null;
+    }
+  }
+
+  /**
+   * Records that the given file has a valid header. Nothing is recorded if the file changed since the snapshot was
+   * taken, since its new content has not been checked.
+   */
+  void recordPresent(String path, File file, Stat before) {
+    if (before == null || path.indexOf('\n') >= 0 || path.indexOf('\r') >= 0) {
+      return;
+    }
+    try {
+      String hash = hash(file);
+      if (before.equals(Stat.of(file))) {
+        current.put(path, new Entry(before.size, stableMtime(before), hash));
+      }
+    } catch (IOException e) {
+      // not recorded: the file will be checked again next time
+    }
+  }
+
+  /**
+   * Writes the files recorded during this check, replacing the previous state.
+   */
+  void save() throws IOException {
+    Path dir = stateFile.toAbsolutePath().getParent();
+    Files.createDirectories(dir);
+    Path tmp = Files.createTempFile(dir, stateFile.getFileName().toString(), ".tmp");
+    try {
+      try (BufferedWriter writer = Files.newBufferedWriter(tmp, UTF_8)) {
+        writer.write(FORMAT);
+        writer.write('\n');
+        writer.write(fingerprint);
+        writer.write('\n');
+        for (Map.Entry<String, Entry> e : new TreeMap<>(current).entrySet()) {
+          Entry entry = e.getValue();
+          writer.write(entry.size + " " + entry.mtime + " " + entry.hash + " " + e.getKey());
+          writer.write('\n');
+        }
+      }
+      try {
+        Files.move(tmp, stateFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+      } catch (AtomicMoveNotSupportedException e) {
+        Files.move(tmp, stateFile, StandardCopyOption.REPLACE_EXISTING);
+      }
+    } finally {
+      Files.deleteIfExists(tmp);
+    }
+  }
+
+  private static long stableMtime(Stat stat) {
+    long mtimeMillis = TimeUnit.NANOSECONDS.toMillis(stat.mtime);
+    return System.currentTimeMillis() - mtimeMillis < RACY_WINDOW_MILLIS ? UNKNOWN_MTIME : stat.mtime;
+  }
+
+  private static String hash(File file) throws IOException {
+    MessageDigest digest = newDigest();
+    try (InputStream in = new DigestInputStream(Files.newInputStream(file.toPath()), digest)) {
+      in.transferTo(OutputStream.nullOutputStream());
+    }
+    return toHex(digest.digest());
+  }
+
+  static MessageDigest newDigest() {
+    try {
+      return MessageDigest.getInstance("SHA-256");
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException(e.getMessage(), e);
+    }
+  }
+
+  static String toHex(byte[] bytes) {
+    StringBuilder sb = new StringBuilder(bytes.length * 2);
+    for (byte b : bytes) {
+      sb.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+    }
+    return sb.toString();
+  }
+
+  static final class Stat {
+    private final long size;
+    private final long mtime;
+
+    private Stat(long size, long mtime) {
+      this.size = size;
+      this.mtime = mtime;
+    }
+
+    private static Stat of(File file) throws IOException {
+      BasicFileAttributes attributes = Files.readAttributes(file.toPath(), BasicFileAttributes.class);
+      return new Stat(attributes.size(), attributes.lastModifiedTime().to(TimeUnit.NANOSECONDS));
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof Stat)) {
+        return false;
+      }
+      Stat that = (Stat) o;
+      return size == that.size && mtime == that.mtime;
+    }
+
+    @Override
+    public int hashCode() {
+      return Long.hashCode(size) * 31 + Long.hashCode(mtime);
+    }
+  }
+
+  private static final class Entry {
+    private final long size;
+    private final long mtime;
+    private final String hash;
+
+    private Entry(long size, long mtime, String hash) {
+      this.size = size;
+      this.mtime = mtime;
+      this.hash = hash;
+    }
+  }
+}
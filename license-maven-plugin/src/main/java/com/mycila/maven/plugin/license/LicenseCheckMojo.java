@@ -45,6 +45,21 @@ public final class LicenseCheckMojo extends AbstractLicenseMojo {
   @Parameter(property = "license.errorMessage", defaultValue = "Some files do not have the expected license header. Run license:format to update them.")
   public String errorMessage = "Some files do not have the expected license header. Run license:format to update them.";
 
+  /**
+   * Only check the files which changed since the previous check, or which did not have a valid header then.
+   * The files found with a valid header are remembered, per license set, in {@link #incrementalStateDirectory}
+   * together with a fingerprint of the effective configuration. Any change of the configuration (header, header
+   * definitions, mapping, properties used by the header, keywords, strictCheck...) triggers a full check.
+   */
+  @Parameter(property = "license.incremental", defaultValue = "false")
+  public boolean incremental;
+
+  /**
+   * Directory where the state of {@link #incremental} checks is stored.
+   */
+  @Parameter(property = "license.incremental.stateDirectory", defaultValue = "${project.build.directory}/license-plugin-incremental")
+  public File incrementalStateDirectory;
+
   public final Collection<File> missingHeaders = new ConcurrentLinkedQueue<>();
 
   @Override
@@ -110,4 +125,9 @@ public final class LicenseCheckMojo extends AbstractLicenseMojo {
     callback.checkUnknown();
   }
 
+  @Override
+  protected File getIncrementalStateDirectory() {
+    return incremental ? incrementalStateDirectory : null;
+  }
+
 }
@@ -41,6 +41,7 @@ public final class LicenseFormatMojo extends AbstractLicenseMojo {
       @Override
       public void onHeaderNotFound(Document document, Header header) {
         document.parseHeader();
+        Report.Result result = Report.Result.ADDED;
         if (document.headerDetected()) {
           if (skipExistingHeaders) {
             debug("Keeping license header in: %s", document.getFilePath());
@@ -48,12 +49,17 @@ public final class LicenseFormatMojo extends AbstractLicenseMojo {
             return;
           }
           document.removeHeader();
-          report.add(document.getFile(), Report.Result.REPLACED);
-        } else {
-          report.add(document.getFile(), Report.Result.ADDED);
+          result = Report.Result.REPLACED;
         }
-        info("Updating license header in: %s", document.getFilePath());
         document.updateHeader(header);
+        if (document.isUnchanged()) {
+          // e.g. a header accepted by the parser but not by the strict check: rewriting it would only touch the file
+          debug("Header unchanged in: %s", document.getFilePath());
+          report.add(document.getFile(), Report.Result.NOOP, Report.UNCHANGED);
+          return;
+        }
+        report.add(document.getFile(), result);
+        info("Updating license header in: %s", document.getFilePath());
         if (!dryRun) {
           document.save();
         } else {
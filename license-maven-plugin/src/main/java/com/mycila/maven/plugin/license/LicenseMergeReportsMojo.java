@@ -0,0 +1,116 @@
+/*
+ * Copyright (C) 2008-2025 Mycila (mathieu.carbou@gmail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.mycila.maven.plugin.license;
+
+import org.apache.maven.plugin.AbstractMojo;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
+import org.apache.maven.project.MavenProject;
+
+import java.io.File;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Merge the reports of executions which each processed a part of the files of the project, such as the shards of a
+ * check run with <code>license.shard</code> on several machines, into one report.
+ */
+@Mojo(name = "merge-reports", threadSafe = true)
+public final class LicenseMergeReportsMojo extends AbstractMojo {
+
+  @Parameter(defaultValue = "${project}", required = true)
+  protected MavenProject project;
+
+  /**
+   * The reports to merge, in XML or JSON, as written to <code>reportLocation</code> by each part. They must all come
+   * from the same goal.
+   */
+  @Parameter(property = "license.mergeReports.reports", required = true)
+  public File[] reports;
+
+  /**
+   * The location where to write the merged report.
+   */
+  @Parameter(property = "license.report.location", defaultValue = "${project.reporting.outputDirectory}/license-plugin-report.xml")
+  public File reportLocation;
+
+  /**
+   * Format of the merged report: <code>xml</code> or <code>json</code>. If not set, it is deduced from the extension of
+   * <code>reportLocation</code>.
+   */
+  @Parameter(property = "license.report.format")
+  public String reportFormat;
+
+  /**
+   * Whether to fail when the merged report of a check has files with a missing header.
+   */
+  @Parameter(property = "license.failIfMissing", defaultValue = "true")
+  public boolean failIfMissing = true;
+
+  /**
+   * Whether to fail when the merged report has files without a known comment style, as the goals producing the
+   * reports do.
+   */
+  @Parameter(property = "license.failIfUnknown", defaultValue = "false")
+  public boolean failIfUnknown;
+
+  @Parameter(property = "license.errorMessage", defaultValue = "Some files do not have the expected license header. Run license:format to update them.")
+  public String errorMessage = "Some files do not have the expected license header. Run license:format to update them.";
+
+  /** Whether to skip the plugin execution. */
+  @Parameter(property = "license.skip", defaultValue = "false")
+  public boolean skip;
+
+  @Override
+  public void execute() throws MojoExecutionException {
+    if (skip) {
+      getLog().info("License Plugin is Skipped");
+      return;
+    }
+    final Report merged;
+    try {
+      final List<Report> parts = new ArrayList<>(reports.length);
+      for (final File report : reports) {
+        parts.add(Report.readFrom(report, project));
+      }
+      merged = Report.merge(reportFormat, project, parts);
+      merged.exportTo(reportLocation);
+    } catch (IllegalArgumentException | IllegalStateException | UncheckedIOException e) {
+      throw new MojoExecutionException("Unable to merge the license reports: " + e.getMessage(), e);
+    }
+    getLog().info("Merged " + reports.length + " report(s) into " + reportLocation);
+    getLog().info(merged.getSummary());
+
+    if (merged.count(Report.Result.MISSING) > 0) {
+      if (failIfMissing) {
+        throw new MojoExecutionException(errorMessage);
+      }
+      getLog().warn(errorMessage);
+    }
+
+    if (merged.count(Report.Result.UNKNOWN) > 0) {
+      final String msg = "Unable to find a comment style definition for some "
+          + "files. You may want to add a custom mapping for the relevant file extensions.";
+      if (failIfUnknown) {
+        throw new MojoExecutionException(msg);
+      }
+      getLog().warn(msg);
+    }
+  }
+
+}
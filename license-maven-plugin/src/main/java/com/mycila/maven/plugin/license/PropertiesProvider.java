@@ -19,6 +19,7 @@ import com.mycila.maven.plugin.license.document.Document;
 
 import java.util.Collections;
 import java.util.Map;
+import java.util.Set;
 
 /**
  */
@@ -34,6 +35,25 @@ public interface PropertiesProvider extends AutoCloseable {
     return Collections.emptyMap();
   }
 
+  /**
+   * Returns the keys of the properties added by {@link #adjustProperties(AbstractLicenseMojo, Map, Document)}. A provider
+   * none of whose keys is referenced by the headers is neither initialized nor called, only
+   * {@link #checkEnvironment(AbstractLicenseMojo, Map)} is. {@code null} means the keys are unknown, so that the provider
+   * is always used.
+   */
+  default Set<String> getPropertyKeys() {
+    return null;
+  }
+
+  /**
+   * Called instead of {@link #init(AbstractLicenseMojo, Map)} when none of the properties of this provider is used, to
+   * run the checks of the environment which fail or skip the build whether or not the properties are used, such as
+   * {@code license.failOnShallow}. It should not do the work needed to compute the properties.
+   */
+  default void checkEnvironment(AbstractLicenseMojo mojo, Map<String, String> currentProperties) {
+    // Do nothing on default
+  }
+
   @Override
   default void close() {
       // Do nothing on default
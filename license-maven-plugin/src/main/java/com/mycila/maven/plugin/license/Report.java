@@ -18,7 +18,9 @@ package com.mycila.maven.plugin.license;
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
 import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
 import com.google.gson.JsonPrimitive;
 import com.mycila.xmltool.XMLDoc;
 import com.mycila.xmltool.XMLTag;
@@ -30,7 +32,11 @@ import java.io.UncheckedIOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Collection;
 import java.util.EnumMap;
+import java.util.LinkedHashMap;
 import java.util.Locale;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
@@ -79,12 +85,19 @@ public class Report {
     UNKNOWN,
   }
 
+  /**
+   * Reason of a {@link Result#NOOP} result for format, when the file already had the bytes it would have been
+   * rewritten with
+   */
+  static final String UNCHANGED = "unchanged";
+
   private final long timestamp;
   private final MavenProject project;
   private final String format;
   private final Action action;
   private final boolean skipped;
   private final Map<String, Result> results = new ConcurrentHashMap<>();
+  private final Map<String, String> reasons = new ConcurrentHashMap<>();
   private final Path basePath;
 
   public Report(String format, Action action, MavenProject project, Clock clock, boolean skip) {
@@ -100,6 +113,124 @@ public class Report {
     results.put(basePath.relativize(file.getAbsoluteFile().toPath()).toString(), result);
   }
 
+  /**
+   * Adds a result with the reason it was given, which is written in the report next to it.
+   */
+  void add(File file, Result result, String reason) {
+    String path = basePath.relativize(file.getAbsoluteFile().toPath()).toString();
+    results.put(path, result);
+    reasons.put(path, reason);
+  }
+
+  /**
+   * Splits the results among the given modules, each file going to the report of the deepest module containing it.
+   * The files which are in none of these modules are left out.
+   */
+  Map<MavenProject, Report> splitByModule(Collection<MavenProject> modules) {
+    final Clock clock = Clock.fixed(Instant.ofEpochMilli(timestamp), ZoneOffset.UTC);
+    final Map<MavenProject, Report> reports = new LinkedHashMap<>();
+    for (Map.Entry<String, Result> e : results.entrySet()) {
+      final Path file = basePath.resolve(e.getKey()).normalize();
+      MavenProject owner = null;
+      Path ownerPath = null;
+      for (MavenProject module : modules) {
+        final Path modulePath = module.getBasedir().toPath().toAbsolutePath().normalize();
+        if (file.startsWith(modulePath) && (ownerPath == null || modulePath.startsWith(ownerPath))) {
+          owner = module;
+          ownerPath = modulePath;
+        }
+      }
+      if (owner != null) {
+        final Report report = reports.computeIfAbsent(owner, module -> new Report(format, action, module, clock, skipped));
+        final String path = ownerPath.relativize(file).toString();
+        report.results.put(path, e.getValue());
+        if (reasons.containsKey(e.getKey())) {
+          report.reasons.put(path, reasons.get(e.getKey()));
+        }
+      }
+    }
+    return reports;
+  }
+
+  /**
+   * Reads a report written by {@link #exportTo(File)}, in XML or JSON.
+   *
+   * @param project the project the report was written for
+   * @throws IllegalArgumentException if the file is not a report
+   */
+  static Report readFrom(File reportLocation, MavenProject project) {
+    final String content;
+    try {
+      content = new String(Files.readAllBytes(reportLocation.toPath()), UTF_8);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    try {
+      final Report report;
+      if (content.trim().startsWith("{")) {
+        final JsonObject root = JsonParser.parseString(content).getAsJsonObject();
+        report = new Report("json", Action.valueOf(root.get("goal").getAsString()), project,
+            Clock.fixed(Instant.ofEpochMilli(Long.parseLong(root.get("timestamp").getAsString())), ZoneOffset.UTC), false);
+        for (JsonElement element : root.getAsJsonArray("files")) {
+          final JsonObject file = element.getAsJsonObject();
+          report.results.put(file.get("path").getAsString(), Result.valueOf(file.get("result").getAsString()));
+          if (file.has("reason")) {
+            report.reasons.put(file.get("path").getAsString(), file.get("reason").getAsString());
+          }
+        }
+      } else {
+        final XMLTag root = XMLDoc.from(content, true).gotoRoot();
+        report = new Report("xml", Action.valueOf(root.getAttribute("goal")), project,
+            Clock.fixed(Instant.ofEpochMilli(Long.parseLong(root.getAttribute("timestamp"))), ZoneOffset.UTC), false);
+        root.gotoChild("files").forEachChild(file -> {
+          report.results.put(file.getAttribute("path"), Result.valueOf(file.getAttribute("result")));
+          if (file.hasAttribute("reason")) {
+            report.reasons.put(file.getAttribute("path"), file.getAttribute("reason"));
+          }
+        });
+      }
+      return report;
+    } catch (RuntimeException e) {
+      throw new IllegalArgumentException("Invalid report " + reportLocation + ": " + e.getMessage(), e);
+    }
+  }
+
+  /**
+   * Merges the reports of executions which each processed a part of the files of the same project, such as the shards
+   * of a check. The merged report has the results of all of them and the timestamp of the latest one.
+   *
+   * @throws IllegalArgumentException if the reports were not produced by the same goal
+   */
+  static Report merge(String format, MavenProject project, Collection<Report> reports) {
+    Action action = null;
+    long timestamp = 0;
+    for (Report report : reports) {
+      if (action != null && action != report.action) {
+        throw new IllegalArgumentException("Cannot merge the reports of different goals: " + action + " and "
+            + report.action);
+      }
+      action = report.action;
+      timestamp = Math.max(timestamp, report.timestamp);
+    }
+    if (action == null) {
+      throw new IllegalArgumentException("No report to merge");
+    }
+    final Report merged = new Report(format, action, project,
+        Clock.fixed(Instant.ofEpochMilli(timestamp), ZoneOffset.UTC), false);
+    for (Report report : reports) {
+      merged.results.putAll(report.results);
+      merged.reasons.putAll(report.reasons);
+    }
+    return merged;
+  }
+
+  /**
+   * @return the number of files with the given result
+   */
+  long count(Result result) {
+    return results.values().stream().filter(result::equals).count();
+  }
+
   public String getSummary() {
     Map<Result, Long> counts = results.values().stream()
         .collect(Collectors.groupingBy(r -> r, () -> new EnumMap<>(Result.class), Collectors.counting()));
@@ -162,10 +293,15 @@ public class Report {
 
               .addTag("files");
 
-          results.entrySet().stream().sorted(Map.Entry.comparingByKey()).forEach(e -> files.addTag("file")
-              .addAttribute("path", e.getKey())
-              .addAttribute("result", e.getValue().name())
-              .gotoParent());
+          results.entrySet().stream().sorted(Map.Entry.comparingByKey()).forEach(e -> {
+            files.addTag("file")
+                .addAttribute("path", e.getKey())
+                .addAttribute("result", e.getValue().name());
+            if (reasons.containsKey(e.getKey())) {
+              files.addAttribute("reason", reasons.get(e.getKey()));
+            }
+            files.gotoParent();
+          });
 
           try {
             Files.write(reportLocation.toPath(), files.gotoRoot().toBytes("UTF-8"));
@@ -188,6 +324,9 @@ public class Report {
             JsonObject file = new JsonObject();
             file.add("path", new JsonPrimitive(e.getKey()));
             file.add("result", new JsonPrimitive(e.getValue().name()));
+            if (reasons.containsKey(e.getKey())) {
+              file.add("reason", new JsonPrimitive(reasons.get(e.getKey())));
+            }
             return file;
           }).reduce(new JsonArray(), (files, file) -> {
             files.add(file);
@@ -0,0 +1,68 @@
+/*
+ * Copyright (C) 2008-2025 Mycila (mathieu.carbou@gmail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.mycila.maven.plugin.license;
+
+import java.io.File;
+
+/**
+ * One of the parts into which the selected files are partitioned so that several machines check one part each.
+ * <p>
+ * A file belongs to the part given by the hash of its path relative to the base directory of its license set, with
+ * {@code '/'} separators, so that the same file lands in the same part on every machine and operating system.
+ */
+final class Shard {
+
+  private final int index;
+  private final int count;
+
+  private Shard(int index, int count) {
+    this.index = index;
+    this.count = count;
+  }
+
+  /**
+   * @param shard {@code <index>/<count>}, the index starting at 1
+   * @throws IllegalArgumentException if the value is not of this form
+   */
+  static Shard parse(String shard) {
+    final int slash = shard.indexOf('/');
+    try {
+      if (slash > 0) {
+        final int index = Integer.parseInt(shard.substring(0, slash).trim());
+        final int count = Integer.parseInt(shard.substring(slash + 1).trim());
+        if (count > 0 && index > 0 && index <= count) {
+          return new Shard(index, count);
+        }
+      }
+    } catch (NumberFormatException e) {
+      // reported below
+    }
+    throw new IllegalArgumentException("Invalid shard: '" + shard
+        + "'. Expected <index>/<count>, with 1 <= index <= count");
+  }
+
+  /**
+   * @param file path relative to the base directory of its license set, with native separators
+   */
+  boolean contains(String file) {
+    return Math.floorMod(file.replace(File.separatorChar, '/').hashCode(), count) == index - 1;
+  }
+
+  @Override
+  public String toString() {
+    return index + "/" + count;
+  }
+}
@@ -0,0 +1,384 @@
+/*
+ * Copyright (C) 2008-2025 Mycila (mathieu.carbou@gmail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.mycila.maven.plugin.license;
+
+import org.apache.maven.execution.ExecutionEvent;
+import org.apache.maven.execution.ExecutionListener;
+import org.apache.maven.execution.MavenExecutionRequest;
+import org.apache.maven.execution.MavenSession;
+import org.eclipse.aether.RepositorySystemSession;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A pool of worker threads shared by all the executions of the plugin in a Maven session, so that a parallel build
+ * ({@code mvn -T}) does not start one pool per module and license set, which would oversubscribe the machine.
+ * <p>
+ * Each execution submits its tasks to its own {@link Lane}, and the workers take the tasks of the lanes in turn, so
+ * that a module with many files does not delay the others. The pool grows to the largest number of threads asked by
+ * the executions opening a lane, and its workers are kept for the next executions until the session ends, when
+ * {@link #shutdown()} stops them, so that no thread of a finished build remains in a JVM running several builds.
+ */
+final class SharedExecutor {
+
+  private final ReentrantLock lock = new ReentrantLock();
+  private final Condition changed = lock.newCondition();
+  /** The lanes having tasks waiting, in the order the workers take them. */
+  private final Deque<Lane> readyLanes = new ArrayDeque<>();
+  private int workers;
+  private int threads;
+  private boolean shutdown;
+
+  /**
+   * @return the executor shared in the given session, shut down when the session ends, or null if there is no
+   * session to share it in
+   */
+  static SharedExecutor of(MavenSession session) {
+    final RepositorySystemSession repositorySession = session == null ? null : session.getRepositorySession();
+    if (repositorySession == null) {
+      return null;
+    }
+    return (SharedExecutor) repositorySession.getData().computeIfAbsent(SharedExecutor.class, () -> {
+      final SharedExecutor executor = new SharedExecutor();
+      final MavenExecutionRequest request = session.getRequest();
+      // the listener of the request is looked up by Maven for each event, including the end of the session
+      request.setExecutionListener(new SessionEndListener(request.getExecutionListener(), executor));
+      return executor;
+    });
+  }
+
+  /**
+   * Opens a lane to submit tasks to the shared workers, starting them if needed.
+   *
+   * @param threads the number of workers the lane needs, the pool growing to the largest one asked
+   * @return the lane, to shut down once its tasks are done
+   */
+  Lane open(int threads) {
+    lock.lock();
+    try {
+      if (shutdown) {
+        throw new RejectedExecutionException("The session has ended");
+      }
+      this.threads = Math.max(this.threads, threads);
+      while (workers < this.threads) {
+        final Thread worker = new Thread(this::work, "license-maven-plugin-" + ++workers);
+        worker.setDaemon(true);
+        worker.start();
+      }
+      return new Lane();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * @return the number of workers, shared by all the open lanes
+   */
+  int getThreads() {
+    lock.lock();
+    try {
+      return threads;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Stops the workers once the tasks already submitted are done. No lane can be opened afterwards.
+   */
+  void shutdown() {
+    lock.lock();
+    try {
+      shutdown = true;
+      changed.signalAll();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private void work() {
+    while (true) {
+      final Lane lane;
+      final Runnable task;
+      lock.lock();
+      try {
+        while (readyLanes.isEmpty()) {
+          if (shutdown) {
+            workers--;
+            return;
+          }
+          changed.awaitUninterruptibly();
+        }
+        lane = readyLanes.poll();
+        task = lane.tasks.poll();
+        if (!lane.tasks.isEmpty()) {
+          readyLanes.add(lane);
+        }
+        lane.running++;
+      } finally {
+        lock.unlock();
+      }
+      try {
+        task.run();
+      } catch (RuntimeException e) {
+        // the tasks submitted through the ExecutorService methods report their failure with their Future
+      } finally {
+        lock.lock();
+        try {
+          lane.running--;
+          changed.signalAll();
+        } finally {
+          lock.unlock();
+        }
+      }
+    }
+  }
+
+  /**
+   * The tasks of one execution. Shutting it down only affects its own tasks.
+   */
+  final class Lane extends AbstractExecutorService {
+
+    private final Deque<Runnable> tasks = new ArrayDeque<>();
+    private int running;
+    private boolean shutdown;
+
+    @Override
+    public void execute(Runnable task) {
+      lock.lock();
+      try {
+        if (shutdown || SharedExecutor.this.shutdown) {
+          throw new RejectedExecutionException("The lane has been shut down");
+        }
+        if (tasks.isEmpty()) {
+          readyLanes.add(this);
+          changed.signalAll();
+        }
+        tasks.add(task);
+      } finally {
+        lock.unlock();
+      }
+    }
+
+    @Override
+    public void shutdown() {
+      lock.lock();
+      try {
+        shutdown = true;
+      } finally {
+        lock.unlock();
+      }
+    }
+
+    /**
+     * Shuts down this lane and drops its waiting tasks. Its running tasks are not interrupted since they run on
+     * threads shared with other lanes.
+     */
+    @Override
+    public List<Runnable> shutdownNow() {
+      lock.lock();
+      try {
+        final List<Runnable> dropped = new ArrayList<>(tasks);
+        tasks.clear();
+        readyLanes.remove(this);
+        shutdown = true;
+        changed.signalAll();
+        return dropped;
+      } finally {
+        lock.unlock();
+      }
+    }
+
+    @Override
+    public boolean isShutdown() {
+      lock.lock();
+      try {
+        return shutdown;
+      } finally {
+        lock.unlock();
+      }
+    }
+
+    @Override
+    public boolean isTerminated() {
+      lock.lock();
+      try {
+        return shutdown && tasks.isEmpty() && running == 0;
+      } finally {
+        lock.unlock();
+      }
+    }
+
+    @Override
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+      long nanos = unit.toNanos(timeout);
+      lock.lock();
+      try {
+        while (!isTerminated()) {
+          if (nanos <= 0) {
+            return false;
+          }
+          nanos = changed.awaitNanos(nanos);
+        }
+        return true;
+      } finally {
+        lock.unlock();
+      }
+    }
+  }
+
+  /**
+   * Shuts down the executor when the session ends, and passes all the events on to the listener it replaces.
+   */
+  static final class SessionEndListener implements ExecutionListener {
+
+    private final ExecutionListener delegate;
+    private final SharedExecutor executor;
+
+    SessionEndListener(ExecutionListener delegate, SharedExecutor executor) {
+      this.delegate = delegate;
+      this.executor = executor;
+    }
+
+    @Override
+    public void sessionEnded(ExecutionEvent event) {
+      executor.shutdown();
+      if (delegate != null) {
+        delegate.sessionEnded(event);
+      }
+    }
+
+    @Override
+    public void projectDiscoveryStarted(ExecutionEvent event) {
+      if (delegate != null) {
+        delegate.projectDiscoveryStarted(event);
+      }
+    }
+
+    @Override
+    public void sessionStarted(ExecutionEvent event) {
+      if (delegate != null) {
+        delegate.sessionStarted(event);
+      }
+    }
+
+    @Override
+    public void projectSkipped(ExecutionEvent event) {
+      if (delegate != null) {
+        delegate.projectSkipped(event);
+      }
+    }
+
+    @Override
+    public void projectStarted(ExecutionEvent event) {
+      if (delegate != null) {
+        delegate.projectStarted(event);
+      }
+    }
+
+    @Override
+    public void projectSucceeded(ExecutionEvent event) {
+      if (delegate != null) {
+        delegate.projectSucceeded(event);
+      }
+    }
+
+    @Override
+    public void projectFailed(ExecutionEvent event) {
+      if (delegate != null) {
+        delegate.projectFailed(event);
+      }
+    }
+
+    @Override
+    public void mojoSkipped(ExecutionEvent event) {
+      if (delegate != null) {
+        delegate.mojoSkipped(event);
+      }
+    }
+
+    @Override
+    public void mojoStarted(ExecutionEvent event) {
+      if (delegate != null) {
+        delegate.mojoStarted(event);
+      }
+    }
+
+    @Override
+    public void mojoSucceeded(ExecutionEvent event) {
+      if (delegate != null) {
+        delegate.mojoSucceeded(event);
+      }
+    }
+
+    @Override
+    public void mojoFailed(ExecutionEvent event) {
+      if (delegate != null) {
+        delegate.mojoFailed(event);
+      }
+    }
+
+    @Override
+    public void forkStarted(ExecutionEvent event) {
+      if (delegate != null) {
+        delegate.forkStarted(event);
+      }
+    }
+
+    @Override
+    public void forkSucceeded(ExecutionEvent event) {
+      if (delegate != null) {
+        delegate.forkSucceeded(event);
+      }
+    }
+
+    @Override
+    public void forkFailed(ExecutionEvent event) {
+      if (delegate != null) {
+        delegate.forkFailed(event);
+      }
+    }
+
+    @Override
+    public void forkedProjectStarted(ExecutionEvent event) {
+      if (delegate != null) {
+        delegate.forkedProjectStarted(event);
+      }
+    }
+
+    @Override
+    public void forkedProjectSucceeded(ExecutionEvent event) {
+      if (delegate != null) {
+        delegate.forkedProjectSucceeded(event);
+      }
+    }
+
+    @Override
+    public void forkedProjectFailed(ExecutionEvent event) {
+      if (delegate != null) {
+        delegate.forkedProjectFailed(event);
+      }
+    }
+  }
+}
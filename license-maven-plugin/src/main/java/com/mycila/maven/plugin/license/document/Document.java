@@ -19,14 +19,13 @@ import com.mycila.maven.plugin.license.header.Header;
 import com.mycila.maven.plugin.license.header.HeaderDefinition;
 import com.mycila.maven.plugin.license.header.HeaderParser;
 import com.mycila.maven.plugin.license.header.HeaderType;
+import com.mycila.maven.plugin.license.util.AsciiFirstLines;
 import com.mycila.maven.plugin.license.util.FileContent;
-import com.mycila.maven.plugin.license.util.FileUtils;
 
 import java.io.File;
 import java.io.IOException;
 import java.nio.charset.Charset;
 
-import static com.mycila.maven.plugin.license.util.FileUtils.readFirstLines;
 import static com.mycila.maven.plugin.license.util.FileUtils.remove;
 
 public final class Document {
@@ -37,16 +36,36 @@ public final class Document {
   private final String[] keywords;
   private final DocumentPropertiesLoader documentPropertiesLoader;
   private final PropertyPlaceholderResolver placeholderResolver = new PropertyPlaceholderResolver();
+  private FileContent content;
   private HeaderParser parser;
+  private final int firstLineCount;
+  private AsciiFirstLines asciiFirstLines;
+  private boolean notAscii;
 
 
   public Document(File file, HeaderDefinition headerDefinition, Charset encoding, String[] keywords, DocumentPropertiesLoader documentPropertiesLoader) {
+    this(file, headerDefinition, encoding, keywords, documentPropertiesLoader, 0, null);
+  }
+
+  /**
+   * @param firstLineCount the number of first lines to read at once when looking for a header, so that they are read
+   *                       once for all the headers matched against this document and the next ones sharing its content
+   * @param previous       a document of the same file whose content is reused if it was not modified, or null
+   */
+  Document(File file, HeaderDefinition headerDefinition, Charset encoding, String[] keywords, DocumentPropertiesLoader documentPropertiesLoader, int firstLineCount, Document previous) {
     this.keywords = keywords.clone();
     this.file = file;
     this.filePath = file.getPath().replace('\\', '/');
     this.headerDefinition = headerDefinition;
     this.encoding = encoding;
     this.documentPropertiesLoader = documentPropertiesLoader;
+    this.firstLineCount = firstLineCount;
+    // once parsed, the content may have been modified by the header operations, and the file saved
+    if (previous != null && previous.parser == null && previous.file.equals(file) && previous.encoding.equals(encoding)) {
+      this.content = previous.content;
+      this.asciiFirstLines = previous.asciiFirstLines;
+      this.notAscii = previous.notAscii;
+    }
   }
 
   public HeaderDefinition getHeaderDefinition() {
@@ -71,14 +90,10 @@ public final class Document {
 
   public boolean hasHeader(Header header, boolean strictCheck) {
     if (!strictCheck) {
-      try {
-        String fileHeader = readFirstLines(file, header.getLineCount() + 10, encoding);
-        String fileHeaderOneLine = remove(fileHeader, headerDefinition.getFirstLine().trim(), headerDefinition.getEndLine().trim(), headerDefinition.getBeforeEachLine().trim(), "\n", "\r", "\t", " ");
-        String headerOnOnelIne = mergeProperties(header.asOneLineString());
-        return fileHeaderOneLine.contains(remove(headerOnOnelIne, headerDefinition.getFirstLine().trim(), headerDefinition.getEndLine().trim(), headerDefinition.getBeforeEachLine().trim()));
-      } catch (IOException e) {
-        throw new IllegalStateException("Cannot read file " + filePath + ". Cause: " + e.getMessage(), e);
-      }
+      String fileHeader = getFirstLines(header.getMatchLineCount());
+      String fileHeaderOneLine = remove(fileHeader, headerDefinition.getFirstLine().trim(), headerDefinition.getEndLine().trim(), headerDefinition.getBeforeEachLine().trim(), "\n", "\r", "\t", " ");
+      String headerOnOnelIne = mergeProperties(header.asOneLineString());
+      return fileHeaderOneLine.contains(remove(headerOnOnelIne, headerDefinition.getFirstLine().trim(), headerDefinition.getEndLine().trim(), headerDefinition.getBeforeEachLine().trim()));
     }
     try {
       return header.isMatchForText(this, headerDefinition, true, encoding);
@@ -87,12 +102,53 @@ public final class Document {
     }
   }
 
+  /**
+   * Returns the first lines of this document, each followed by a line feed. The file is only read once per document:
+   * its content is shared by all the headers it is matched against and by the header parser.
+   *
+   * @param lineCount the maximum number of lines to return
+   * @return the first lines
+   */
+  public String getFirstLines(int lineCount) {
+    return getFileContent().getFirstLines(lineCount);
+  }
+
+  /**
+   * Returns the first lines of this document as ASCII bytes, so that an ASCII header can be looked for without decoding
+   * them. Once the content of the file has been decoded, or if these lines are not made of ASCII characters, the
+   * decoded lines must be used instead.
+   *
+   * @param lineCount the maximum number of lines to return
+   * @return the first lines, or null if {@link #getFirstLines(int)} must be used
+   */
+  public AsciiFirstLines getAsciiFirstLines(int lineCount) throws IOException {
+    if (content != null || notAscii) {
+      return null;
+    }
+    if (asciiFirstLines == null || !asciiFirstLines.covers(lineCount)) {
+      asciiFirstLines = AsciiFirstLines.read(file, encoding, Math.max(lineCount, firstLineCount));
+      notAscii = asciiFirstLines == null;
+    }
+    return asciiFirstLines;
+  }
+
+  private FileContent getFileContent() {
+    if (content == null) {
+      content = new FileContent(file, encoding);
+    }
+    return content;
+  }
+
   public void updateHeader(Header header) {
     String headerStr = header.applyDefinitionAndSections(parser.getHeaderDefinition(), parser.getFileContent().isUnix());
     parser.getFileContent().insert(parser.getBeginPosition(), mergeProperties(headerStr));
   }
 
   public String mergeProperties(String str) {
+    if (str.indexOf("${") == -1) {
+      // nothing to resolve: no need to load the document properties
+      return str;
+    }
     return placeholderResolver.replacePlaceholders(str, documentPropertiesLoader.load(this));
   }
 
@@ -103,13 +159,27 @@ public final class Document {
   public void saveTo(File dest) {
     if (parser != null) {
       try {
-        FileUtils.write(dest, parser.getFileContent().getContent(), encoding);
+        parser.getFileContent().writeTo(dest, encoding);
       } catch (IOException e) {
         throw new IllegalStateException("Cannot write new header in file " + filePath + ". Cause: " + e.getMessage(), e);
       }
     }
   }
 
+  /**
+   * @return true if {@link #save() saving} this document would not change the bytes of its file
+   */
+  public boolean isUnchanged() {
+    if (parser == null) {
+      return true;
+    }
+    try {
+      return parser.getFileContent().isUnchanged(encoding);
+    } catch (IOException e) {
+      throw new IllegalStateException("Cannot read file " + filePath + ". Cause: " + e.getMessage(), e);
+    }
+  }
+
   public String getContent() {
     return parser == null ? "" : parser.getFileContent().getContent();
   }
@@ -130,7 +200,7 @@ public final class Document {
 
   public void parseHeader() {
     if (parser == null) {
-      parser = new HeaderParser(new FileContent(file, encoding), headerDefinition, keywords);
+      parser = new HeaderParser(getFileContent(), headerDefinition, keywords);
     }
   }
 
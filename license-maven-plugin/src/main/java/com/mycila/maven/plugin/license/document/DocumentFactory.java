@@ -19,19 +19,19 @@ import com.mycila.maven.plugin.license.header.HeaderDefinition;
 
 import java.io.File;
 import java.nio.charset.Charset;
-import java.nio.file.Path;
 import java.util.Map;
 
 public final class DocumentFactory {
-  private final Map<String, String> mapping;
+  private final DocumentTypeClassifier classifier;
   private final Map<String, HeaderDefinition> definitions;
   private final File basedir;
   private final Charset encoding;
   private final String[] keywords;
   private final DocumentPropertiesLoader documentPropertiesLoader;
+  private int firstLineCount;
 
   public DocumentFactory(final File basedir, final Map<String, String> mapping, final Map<String, HeaderDefinition> definitions, final Charset encoding, final String[] keywords, final DocumentPropertiesLoader documentPropertiesLoader) {
-    this.mapping = mapping;
+    this.classifier = new DocumentTypeClassifier(mapping);
     this.definitions = definitions;
     this.basedir = basedir;
     this.encoding = encoding;
@@ -39,21 +39,33 @@ public final class DocumentFactory {
     this.documentPropertiesLoader = documentPropertiesLoader;
   }
 
+  /**
+   * Sets the number of first lines the documents read at once when looking for a header, which should be the largest
+   * number needed by the headers they are matched against, including the ones of the factories sharing their content.
+   * It must be set before the documents are created.
+   */
+  public void setFirstLineCount(final int firstLineCount) {
+    this.firstLineCount = firstLineCount;
+  }
+
   public Document createDocuments(final String file) {
-    return getWrapper(file);
+    return getWrapper(file, null);
+  }
+
+  /**
+   * Creates the document of a file already processed by the document of another factory, reusing the content it
+   * read as long as it did not parse its header.
+   *
+   * @param previous the document of the same file created by another factory, or null
+   */
+  public Document createDocuments(final String file, final Document previous) {
+    return getWrapper(file, previous);
   }
 
-  private Document getWrapper(final String file) {
-    String headerType = mapping.get("");
-    String lowerFileName = Path.of(file).getFileName().toString().toLowerCase();
-    for (Map.Entry<String, String> entry : mapping.entrySet()) {
-      String lowerKey = entry.getKey().toLowerCase();
-      if (lowerFileName.endsWith("." + lowerKey) || lowerFileName.equals(lowerKey)) {
-        headerType = entry.getValue().toLowerCase();
-        break;
-      }
-    }
-    return new Document(new File(basedir, file), definitions.get(headerType), encoding, keywords, documentPropertiesLoader);
+  private Document getWrapper(final String file, final Document previous) {
+    final File path = new File(basedir, file);
+    return new Document(path, definitions.get(classifier.getHeaderType(file)), encoding, keywords,
+        documentPropertiesLoader, firstLineCount, previous);
   }
 
 }
@@ -0,0 +1,101 @@
+/*
+ * Copyright (C) 2008-2025 Mycila (mathieu.carbou@gmail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.mycila.maven.plugin.license.document;
+
+import java.io.File;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Finds the header type of a file from a mapping of file extensions or file names to header types, as configured with
+ * the {@code mapping} parameter.
+ * <p>
+ * A mapping key matches a file when the file name, ignoring case, is the key or ends with a dot followed by the key.
+ * When several keys match, the first one in the mapping wins. The mapping is compiled once into a lookup table of
+ * file names and a trie of reversed extensions, so that classifying a file only walks its name once, whatever the
+ * size of the mapping.
+ */
+public final class DocumentTypeClassifier {
+
+  private final String defaultHeaderType;
+  private final String[] headerTypes;
+  private final Map<String, Integer> names = new HashMap<>();
+  private final Node extensions = new Node();
+
+  /**
+   * @param mapping the mapping of file extensions or names to header type names, in order of precedence. The value of
+   *                the empty key, if any, is used for files matching no other key.
+   */
+  public DocumentTypeClassifier(Map<String, String> mapping) {
+    this.defaultHeaderType = mapping.get("");
+    this.headerTypes = new String[mapping.size()];
+    int rank = 0;
+    for (Map.Entry<String, String> entry : mapping.entrySet()) {
+      String key = entry.getKey().toLowerCase();
+      headerTypes[rank] = entry.getValue().toLowerCase();
+      names.putIfAbsent(key, rank);
+      Node node = extensions;
+      for (int i = key.length() - 1; i >= 0; i--) {
+        node = node.children.computeIfAbsent(key.charAt(i), c -> new Node());
+      }
+      node = node.children.computeIfAbsent('.', c -> new Node());
+      if (node.rank < 0) {
+        node.rank = rank;
+      }
+      rank++;
+    }
+  }
+
+  /**
+   * @param file the path of a file
+   * @return the name of the header type of the file, in lower case, or the value of the empty key of the mapping if no
+   * other key matches
+   */
+  public String getHeaderType(String file) {
+    String name = fileName(file).toLowerCase();
+    Integer exact = names.get(name);
+    int best = exact == null ? Integer.MAX_VALUE : exact;
+    Node node = extensions;
+    for (int i = name.length() - 1; i >= 0 && node != null; i--) {
+      node = node.children.get(name.charAt(i));
+      if (node != null && node.rank >= 0 && node.rank < best) {
+        best = node.rank;
+      }
+    }
+    return best == Integer.MAX_VALUE ? defaultHeaderType : headerTypes[best];
+  }
+
+  private static String fileName(String file) {
+    int end = file.length();
+    while (end > 1 && isSeparator(file.charAt(end - 1))) {
+      end--;
+    }
+    int start = end;
+    while (start > 0 && !isSeparator(file.charAt(start - 1))) {
+      start--;
+    }
+    return file.substring(start, end);
+  }
+
+  private static boolean isSeparator(char c) {
+    return c == '/' || c == File.separatorChar;
+  }
+
+  private static final class Node {
+    private final Map<Character, Node> children = new HashMap<>(4);
+    private int rank = -1;
+  }
+}
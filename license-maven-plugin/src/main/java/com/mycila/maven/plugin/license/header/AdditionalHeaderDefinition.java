@@ -51,6 +51,7 @@ import java.util.Map;
  *           &lt;xs:element type="xs:string" name="beforeEachLine" minOccurs="1" maxOccurs="1"/&gt;
  *           &lt;xs:element type="xs:string" name="endLine" minOccurs="1" maxOccurs="1"/&gt;
  *           &lt;xs:element type="xs:string" name="skipLine" minOccurs="0" maxOccurs="1"/&gt;
+ *           &lt;xs:element type="xs:nonNegativeInteger" name="skipLineLookahead" minOccurs="0" maxOccurs="1"/&gt;
  *           &lt;xs:element type="xs:string" name="firstLineDetectionPattern" minOccurs="1" maxOccurs="1"/&gt;
  *           &lt;xs:element type="xs:string" name="lastLineDetectionPattern" minOccurs="1" maxOccurs="1"/&gt;
  *       &lt;/xs:sequence&gt;
@@ -17,6 +17,7 @@ package com.mycila.maven.plugin.license.header;
 
 import com.mycila.maven.plugin.license.HeaderSection;
 import com.mycila.maven.plugin.license.document.Document;
+import com.mycila.maven.plugin.license.util.AsciiFirstLines;
 import com.mycila.maven.plugin.license.util.StringUtils;
 
 import java.io.IOException;
@@ -26,8 +27,9 @@ import java.util.List;
 import java.util.Map;
 import java.util.SortedMap;
 import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
 
-import static com.mycila.maven.plugin.license.util.FileUtils.readFirstLines;
 import static com.mycila.maven.plugin.license.util.FileUtils.remove;
 
 /**
@@ -35,12 +37,15 @@ import static com.mycila.maven.plugin.license.util.FileUtils.remove;
  * files.
  */
 public final class Header {
+  private static final Pattern TRAILING_SPACES = Pattern.compile(" *\r?\n");
+
   private final HeaderSource location;
   private final String headerContent;
   private final String headerContentOneLine;
   private String[] lines;
   private final HeaderSection[] sections;
   private final int maxLength;
+  private final Map<TemplateKey, Template> templates = new ConcurrentHashMap<>();
 
   /**
    * Constructs a <code>Header</code> object pointing to a license template file. In case of the template contains
@@ -84,6 +89,13 @@ public final class Header {
     return lines.length;
   }
 
+  /**
+   * @return the number of first lines of a file in which this header is looked for
+   */
+  public int getMatchLineCount() {
+    return getLineCount() + 10;
+  }
+
   public int getMaxLineLength() {
     return maxLength;
   }
@@ -102,6 +114,18 @@ public final class Header {
   }
 
   public String buildForDefinition(HeaderDefinition type, boolean unix) {
+    return getTemplate(type, unix).expected;
+  }
+
+  /**
+   * Returns the header rendered for the given definition and line-ending, together with its sections. It only depends
+   * on this header, the definition and the line-ending, so it is computed once and shared by all the documents.
+   */
+  private Template getTemplate(HeaderDefinition type, boolean unix) {
+    return templates.computeIfAbsent(new TemplateKey(type, unix), key -> new Template(render(type, unix)));
+  }
+
+  private String render(HeaderDefinition type, boolean unix) {
     StringBuilder newHeader = new StringBuilder();
     String unixEndOfLine = eol(unix);
     if (notEmpty(type.getFirstLine())) {
@@ -156,8 +180,7 @@ public final class Header {
    * @return true if the header is matched
    */
   public boolean isMatchForText(String potentialFileHeader, HeaderDefinition headerDefinition, boolean unix) {
-    String expected = buildForDefinition(headerDefinition, unix);
-    return isMatchForText(expected, potentialFileHeader, headerDefinition, unix);
+    return getTemplate(headerDefinition, unix).isMatchForText(potentialFileHeader, headerDefinition);
   }
 
   public boolean isMatchForText(String expected, String potentialFileHeader, HeaderDefinition headerDefinition, boolean unix) {
@@ -174,24 +197,35 @@ public final class Header {
   }
 
   public boolean isMatchForText(Document d, HeaderDefinition headerDefinition, boolean unix, Charset encoding) throws IOException {
-    String fileHeader = readFirstLines(d.getFile(), getLineCount() + 10, encoding).replaceAll(" *\r?\n", "\n");
-    String expected = buildForDefinition(headerDefinition, unix);
-    expected = d.mergeProperties(expected);
+    int lineCount = getMatchLineCount();
+    Template template = getTemplate(headerDefinition, unix);
+    String expected = d.mergeProperties(template.expected);
+    byte[] asciiExpected = expected.equals(template.expected) ? template.asciiExpected
+        : computeSectionsByIndex(expected).isEmpty() ? AsciiFirstLines.toAscii(expected) : null;
+    if (asciiExpected != null) {
+      // most headers and the lines around them are plain ASCII: compare the bytes of the file without decoding it
+      AsciiFirstLines firstLines = d.getAsciiFirstLines(lineCount);
+      if (firstLines != null) {
+        return firstLines.contains(asciiExpected, lineCount);
+      }
+    }
+    String fileHeader = TRAILING_SPACES.matcher(d.getFirstLines(lineCount)).replaceAll("\n");
+    if (expected.equals(template.expected)) {
+      return template.isMatchForText(fileHeader, headerDefinition);
+    }
     return isMatchForText(expected, fileHeader, headerDefinition, unix);
   }
 
   public String applyDefinitionAndSections(HeaderDefinition headerDefinition, boolean unix) {
 
-    String expected = buildForDefinition(headerDefinition, unix);
+    Template template = getTemplate(headerDefinition, unix);
 
-    SortedMap<Integer, HeaderSection> sectionsByIndex = computeSectionsByIndex(expected);
-
-    if (sectionsByIndex.isEmpty()) {
-      return expected;
+    if (template.sectionsInOrder.isEmpty()) {
+      return template.expected;
     }
 
-    List<String> textBetweenSections = buildExpectedTextBetweenSections(expected, sectionsByIndex);
-    List<HeaderSection> sectionsInOrder = new ArrayList<>(sectionsByIndex.values());
+    List<String> textBetweenSections = template.textBetweenSections;
+    List<HeaderSection> sectionsInOrder = template.sectionsInOrder;
 
     StringBuilder b = new StringBuilder();
     for (int i = 0; i < textBetweenSections.size(); ++i) {
@@ -441,4 +475,56 @@ public final class Header {
 
     return true;
   }
+
+  private static final class TemplateKey {
+    private final HeaderDefinition definition;
+    private final boolean unix;
+
+    private TemplateKey(HeaderDefinition definition, boolean unix) {
+      this.definition = definition;
+      this.unix = unix;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (!(o instanceof TemplateKey)) {
+        return false;
+      }
+      TemplateKey that = (TemplateKey) o;
+      // the same definition type can be customized differently across license sets
+      return definition == that.definition && unix == that.unix;
+    }
+
+    @Override
+    public int hashCode() {
+      return System.identityHashCode(definition) * 31 + Boolean.hashCode(unix);
+    }
+  }
+
+  /**
+   * The expected header text for a definition and line-ending, split around its sections.
+   */
+  private final class Template {
+    private final String expected;
+    private final List<String> textBetweenSections;
+    private final List<HeaderSection> sectionsInOrder;
+    private final byte[] asciiExpected;
+
+    private Template(String expected) {
+      this.expected = expected;
+      SortedMap<Integer, HeaderSection> sectionsByIndex = computeSectionsByIndex(expected);
+      this.sectionsInOrder = new ArrayList<>(sectionsByIndex.values());
+      this.asciiExpected = sectionsByIndex.isEmpty() ? AsciiFirstLines.toAscii(expected) : null;
+      this.textBetweenSections = sectionsByIndex.isEmpty()
+          ? new ArrayList<>()
+          : buildExpectedTextBetweenSections(expected, sectionsByIndex);
+    }
+
+    private boolean isMatchForText(String potentialFileHeader, HeaderDefinition headerDefinition) {
+      if (sectionsInOrder.isEmpty()) {
+        return potentialFileHeader.contains(expected);
+      }
+      return recursivelyFindMatch(potentialFileHeader, headerDefinition, textBetweenSections, sectionsInOrder, 0, 0);
+    }
+  }
 }
@@ -31,6 +31,7 @@ public final class HeaderDefinition {
   private Boolean allowBlankLines;
 
   private Pattern skipLinePattern;
+  private int skipLineLookahead;
   private Pattern firstLineDetectionPattern;
   private Pattern lastLineDetectionPattern;
   private Boolean multiLine;
@@ -136,7 +137,7 @@ public final class HeaderDefinition {
    * @param line The line to test.
    * @return true if this line must be skipped or false.
    */
-  public boolean isSkipLine(String line) {
+  public boolean isSkipLine(CharSequence line) {
     return skipLinePattern != null && line != null && skipLinePattern.matcher(line).matches();
   }
 
@@ -146,7 +147,7 @@ public final class HeaderDefinition {
    * @param line The line to test.
    * @return true if the first line of a header have been recognized or false.
    */
-  public boolean isFirstHeaderLine(String line) {
+  public boolean isFirstHeaderLine(CharSequence line) {
     return firstLineDetectionPattern != null && line != null && firstLineDetectionPattern.matcher(line).matches();
   }
 
@@ -156,14 +157,44 @@ public final class HeaderDefinition {
    * @param line The line to test.
    * @return true if the last line of a header have been recognized or false.
    */
-  public boolean isLastHeaderLine(String line) {
+  public boolean isLastHeaderLine(CharSequence line) {
     return lastLineDetectionPattern != null && line != null && lastLineDetectionPattern.matcher(line).matches();
   }
 
-  protected Pattern getSkipLinePattern() {
+  public Pattern getSkipLinePattern() {
     return skipLinePattern;
   }
 
+  /**
+   * Returns the number of lines at the top of a file within which the first line to skip must be found, or 0 if it
+   * can be anywhere in the file. A file with no line to skip within this number of lines gets its header at its first
+   * line, without the rest of the file being searched.
+   *
+   * @return The maximum number of lines before the first skipped line, or 0 for no limit.
+   */
+  public int getSkipLineLookahead() {
+    return skipLineLookahead;
+  }
+
+  /**
+   * @param skipLineLookahead The maximum number of lines before the first skipped line, or 0 for no limit.
+   * @see #getSkipLineLookahead()
+   */
+  public void setSkipLineLookahead(int skipLineLookahead) {
+    if (skipLineLookahead < 0) {
+      throw new IllegalArgumentException("The skip line lookahead cannot be negative for header definition " + type);
+    }
+    this.skipLineLookahead = skipLineLookahead;
+  }
+
+  public Pattern getFirstLineDetectionPattern() {
+    return firstLineDetectionPattern;
+  }
+
+  public Pattern getLastLineDetectionPattern() {
+    return lastLineDetectionPattern;
+  }
+
   /**
    * Sets header definition properties using its property name and its string value.<br> If you want to set a property
    * to null you must not call this function. This function is mainly used while parsing properties from the XML
@@ -191,6 +222,8 @@ public final class HeaderDefinition {
       afterEachLine = value;
     } else if ("skipLine".equalsIgnoreCase(property)) {
       skipLinePattern = compile(value);
+    } else if ("skipLineLookahead".equalsIgnoreCase(property)) {
+      setSkipLineLookahead(Integer.parseInt(value.trim()));
     } else if ("padLines".equalsIgnoreCase(property)) {
       padLines = Boolean.parseBoolean(value);
     } else if ("firstLineDetectionPattern".equalsIgnoreCase(property)) {
@@ -18,6 +18,14 @@ package com.mycila.maven.plugin.license.header;
 import com.mycila.maven.plugin.license.util.FileContent;
 import com.mycila.maven.plugin.license.util.StringUtils;
 
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static com.mycila.maven.plugin.license.util.StringUtils.containsLowerCase;
+import static com.mycila.maven.plugin.license.util.StringUtils.isBlank;
+import static com.mycila.maven.plugin.license.util.StringUtils.startsWith;
+
 /**
  * The <code>HeaderParser</code> class is used to get header information about the current header defined in the given
  * file. The achieve this it will use the <code>HeaderDefinition</code> associated to the type of the given file.
@@ -26,6 +34,10 @@ import com.mycila.maven.plugin.license.util.StringUtils;
  * within a section of the file which match the given <code>HeaderDefinition</code> associated to this
  * <code>HeaderParser</code>.
  *
+ * <p>
+ * The lines are visited through views of the file content and matched with the same matchers, so that looking for a
+ * header does not allocate objects for each line.
+ *
  * @see com.mycila.maven.plugin.license.header.HeaderDefinition
  */
 public final class HeaderParser {
@@ -35,9 +47,17 @@ public final class HeaderParser {
   private final boolean existingHeader;
   private final FileContent fileContent;
   private final String[] keywords;
+  /**
+   * The end of the header lines already read, long enough for a keyword to be found across lines.
+   */
+  private final StringBuilder keywordsTail = new StringBuilder();
+  private final int keywordsTailLength;
   private HeaderDefinition headerDefinition;
+  private final Matcher skipLine;
+  private final Matcher firstHeaderLine;
+  private final Matcher lastHeaderLine;
 
-  private String line;
+  private CharSequence line;
 
   /**
    * Creates a <code>HeaderParser</code> object linked to the given file content and the associated header definition
@@ -55,9 +75,19 @@ public final class HeaderParser {
     if (headerDefinition == null) {
       throw new IllegalArgumentException("Cannot work on file header if the header definition is null");
     }
-    this.keywords = keywords.clone();
+    this.keywords = new String[keywords.length];
+    int longestKeyword = 0;
+    for (int i = 0; i < keywords.length; i++) {
+      // lower cased as the characters of the file are, whatever the default locale
+      this.keywords[i] = keywords[i].toLowerCase(Locale.ROOT);
+      longestKeyword = Math.max(longestKeyword, this.keywords[i].length());
+    }
+    this.keywordsTailLength = Math.max(0, longestKeyword - 1);
     this.headerDefinition = headerDefinition;
     this.fileContent = fileContent;
+    this.skipLine = matcher(headerDefinition.getSkipLinePattern());
+    this.firstHeaderLine = matcher(headerDefinition.getFirstLineDetectionPattern());
+    this.lastHeaderLine = matcher(headerDefinition.getLastLineDetectionPattern());
     beginPosition = findBeginPosition();
     existingHeader = hasHeader();
     endPosition = existingHeader ? findEndPosition() : -1;
@@ -108,24 +138,41 @@ public final class HeaderParser {
     return headerDefinition;
   }
 
+  private static Matcher matcher(Pattern pattern) {
+    return pattern == null ? null : pattern.matcher("");
+  }
+
+  private static boolean matches(Matcher matcher, CharSequence line) {
+    return matcher != null && line != null && matcher.reset(line).matches();
+  }
+
   private int findBeginPosition() {
     int beginPos = 0;
-    line = fileContent.nextLine();
+    line = fileContent.nextLineView();
     if (headerDefinition.getSkipLinePattern() == null) {
       return beginPos;
     }
 
-    // the format expect to find lines to be skipped
-    while (line != null && !headerDefinition.isSkipLine(line)) {
+    // the format expect to find lines to be skipped, possibly only within the first lines
+    final int lookahead = headerDefinition.getSkipLineLookahead();
+    int lineCount = 1;
+    while (line != null && !matches(skipLine, line)) {
+      if (lookahead > 0 && lineCount >= lookahead) {
+        // no line to skip at the top of the file: the header goes at the file beginning
+        fileContent.reset();
+        line = fileContent.nextLineView();
+        return 0;
+      }
       beginPos = fileContent.getPosition();
-      line = fileContent.nextLine();
+      line = fileContent.nextLineView();
+      lineCount++;
     }
 
     // at least we have found the line to skip or we are the end of the file
     // this time we are going to skip next lines if they match the skip pattern
-    while (line != null && headerDefinition.isSkipLine(line)) {
+    while (line != null && matches(skipLine, line)) {
       beginPos = fileContent.getPosition();
-      line = fileContent.nextLine();
+      line = fileContent.nextLineView();
     }
 
     if (line == null) {
@@ -133,7 +180,7 @@ public final class HeaderParser {
       // Header has to be at the file beginning
       beginPos = 0;
       fileContent.reset();
-      line = fileContent.nextLine();
+      line = fileContent.nextLineView();
     }
 
     return beginPos;
@@ -141,21 +188,22 @@ public final class HeaderParser {
 
   private boolean hasHeader() {
     // skip blank lines
-    while (line != null && "".equals(line.trim())) {
-      line = fileContent.nextLine();
+    while (line != null && isBlank(line)) {
+      line = fileContent.nextLineView();
     }
     // check if there is already a header
     boolean gotHeader = false;
-    if (headerDefinition.isFirstHeaderLine(line)) {
-      StringBuilder inPlaceHeader = new StringBuilder();
-      inPlaceHeader.append(line.toLowerCase());
+    if (matches(firstHeaderLine, line)) {
+      // the keywords found in the lines of the header
+      final boolean[] foundKeywords = new boolean[keywords.length];
+      findKeywords(line, foundKeywords);
 
-      line = fileContent.nextLine();
+      line = fileContent.nextLineView();
 
       // skip blank lines before header text
       if (headerDefinition.allowBlankLines()) {
-        while (line != null && "".equals(line.trim())) {
-          line = fileContent.nextLine();
+        while (line != null && isBlank(line)) {
+          line = fileContent.nextLineView();
         }
       }
 
@@ -167,7 +215,7 @@ public final class HeaderParser {
         return false;
 
       } else {
-        inPlaceHeader.append(line.toLowerCase());
+        findKeywords(line, foundKeywords);
       }
 
       String before = StringUtils.rtrim(headerDefinition.getBeforeEachLine());
@@ -176,13 +224,13 @@ public final class HeaderParser {
       }
 
       boolean foundEnd = false;
-      if (headerDefinition.isMultiLine() && headerDefinition.isLastHeaderLine(line)) {
+      if (headerDefinition.isMultiLine() && matches(lastHeaderLine, line)) {
         foundEnd = true;
 
       } else {
-        while ((line = fileContent.nextLine()) != null && line.startsWith(before)) {
-          inPlaceHeader.append(line.toLowerCase());
-          if (headerDefinition.isMultiLine() && headerDefinition.isLastHeaderLine(line)) {
+        while ((line = fileContent.nextLineView()) != null && startsWith(line, before)) {
+          findKeywords(line, foundKeywords);
+          if (headerDefinition.isMultiLine() && matches(lastHeaderLine, line)) {
             foundEnd = true;
             break;
           }
@@ -192,8 +240,8 @@ public final class HeaderParser {
       // skip blank lines after header text
       if (headerDefinition.isMultiLine() && headerDefinition.allowBlankLines() && !foundEnd) {
         do {
-          line = fileContent.nextLine();
-        } while (line != null && "".equals(line.trim()));
+          line = fileContent.nextLineView();
+        } while (line != null && isBlank(line));
         fileContent.rewind();
 
       } else if (!headerDefinition.isMultiLine() && !foundEnd) {
@@ -205,10 +253,10 @@ public final class HeaderParser {
         int pos = fileContent.getPosition();
         // check if the line is the end line
         while (line != null
-            && !headerDefinition.isLastHeaderLine(line)
-            && (headerDefinition.allowBlankLines() || !"".equals(line.trim()))
-            && line.startsWith(before)) {
-          line = fileContent.nextLine();
+            && !matches(lastHeaderLine, line)
+            && (headerDefinition.allowBlankLines() || !isBlank(line))
+            && startsWith(line, before)) {
+          line = fileContent.nextLineView();
         }
         if (line == null) {
           fileContent.resetTo(pos);
@@ -217,14 +265,14 @@ public final class HeaderParser {
         // we could end up there if we still have some lines, but not matching "before".
         // This can be the last line in a multi line header
         int pos = fileContent.getPosition();
-        line = fileContent.nextLine();
-        if (line == null || !headerDefinition.isLastHeaderLine(line)) {
+        line = fileContent.nextLineView();
+        if (line == null || !matches(lastHeaderLine, line)) {
           fileContent.resetTo(pos);
         }
       }
       gotHeader = true;
-      for (String keyword : keywords) {
-        if (inPlaceHeader.indexOf(keyword.toLowerCase()) == -1) {
+      for (boolean foundKeyword : foundKeywords) {
+        if (!foundKeyword) {
           gotHeader = false;
           break;
         }
@@ -233,17 +281,32 @@ public final class HeaderParser {
     return gotHeader;
   }
 
+  /**
+   * Looks for the keywords in the text of the header lines joined together, so that a keyword can span several lines.
+   */
+  private void findKeywords(CharSequence line, boolean[] foundKeywords) {
+    for (int i = 0; i < keywords.length; i++) {
+      foundKeywords[i] = foundKeywords[i] || containsLowerCase(keywordsTail, line, keywords[i]);
+    }
+    for (int i = Math.max(0, line.length() - keywordsTailLength); i < line.length(); i++) {
+      keywordsTail.append(line.charAt(i));
+    }
+    if (keywordsTail.length() > keywordsTailLength) {
+      keywordsTail.delete(0, keywordsTail.length() - keywordsTailLength);
+    }
+  }
+
   private int findEndPosition() {
     // we check if there is a header, if the next line is the blank line of the header
     int end = fileContent.getPosition();
-    line = fileContent.nextLine();
+    line = fileContent.nextLineView();
     if (beginPosition == 0) {
-      while (line != null && "".equals(line.trim())) {
+      while (line != null && isBlank(line)) {
         end = fileContent.getPosition();
-        line = fileContent.nextLine();
+        line = fileContent.nextLineView();
       }
     }
-    if (headerDefinition.getEndLine().endsWith("EOL") && line != null && "".equals(line.trim())) {
+    if (headerDefinition.getEndLine().endsWith("EOL") && line != null && isBlank(line)) {
       end = fileContent.getPosition();
     }
     return end;
@@ -0,0 +1,186 @@
+/*
+ * Copyright (C) 2008-2025 Mycila (mathieu.carbou@gmail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.mycila.maven.plugin.license.util;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * The first lines of a file, read as bytes, for the encodings in which each ASCII character is a single byte of the
+ * same value. As long as these lines only contain ASCII characters, an ASCII header can be looked for in them without
+ * decoding the file. The lines are normalized like the header matching does with the decoded lines: each line
+ * terminator becomes a line feed and the spaces ending a line are removed.
+ */
+public final class AsciiFirstLines {
+
+  private static final int CHUNK_SIZE = 8 * 1024;
+
+  private final byte[] bytes;
+  private final int[] lineEnds;
+  private final int lineCount;
+  private final boolean endReached;
+
+  private AsciiFirstLines(byte[] bytes, int[] lineEnds, int lineCount, boolean endReached) {
+    this.bytes = bytes;
+    this.lineEnds = lineEnds;
+    this.lineCount = lineCount;
+    this.endReached = endReached;
+  }
+
+  /**
+   * Reads the first lines of a file.
+   *
+   * @param lineCount the maximum number of lines to read
+   * @return the lines read, or null if the encoding is not ASCII compatible or if they contain a non-ASCII byte, in
+   * which case the file has to be decoded
+   */
+  public static AsciiFirstLines read(File file, Charset encoding, int lineCount) throws IOException {
+    if (!isAsciiCompatible(encoding)) {
+      return null;
+    }
+    byte[] out = new byte[CHUNK_SIZE];
+    int[] lineEnds = new int[Math.max(1, Math.min(lineCount, 64))];
+    int length = 0;
+    int lines = 0;
+    int lineStart = 0;
+    boolean inLine = false;
+    boolean carriageReturn = false;
+    ByteBuffer in = ByteBuffer.allocate(CHUNK_SIZE);
+    try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+      while (lines < lineCount) {
+        in.clear();
+        if (channel.read(in) <= 0) {
+          break;
+        }
+        in.flip();
+        while (in.hasRemaining() && lines < lineCount) {
+          byte b = in.get();
+          if (b < 0) {
+            return null;
+          }
+          if (b == '\n' && carriageReturn) {
+            carriageReturn = false;
+            continue;
+          }
+          carriageReturn = b == '\r';
+          if (length == out.length) {
+            out = Arrays.copyOf(out, out.length * 2);
+          }
+          if (b == '\n' || b == '\r') {
+            length = endLine(out, lineStart, length);
+            if (lines == lineEnds.length) {
+              lineEnds = Arrays.copyOf(lineEnds, lineEnds.length * 2);
+            }
+            lineEnds[lines++] = length;
+            lineStart = length;
+            inLine = false;
+          } else {
+            out[length++] = b;
+            inLine = true;
+          }
+        }
+      }
+    }
+    boolean endReached = lines < lineCount;
+    if (endReached && inLine) {
+      if (length == out.length) {
+        out = Arrays.copyOf(out, out.length + 1);
+      }
+      length = endLine(out, lineStart, length);
+      if (lines == lineEnds.length) {
+        lineEnds = Arrays.copyOf(lineEnds, lineEnds.length + 1);
+      }
+      lineEnds[lines++] = length;
+    }
+    return new AsciiFirstLines(out, lineEnds, lines, endReached);
+  }
+
+  /**
+   * @return true if the encoding represents each ASCII character with a single byte of the same value, and never uses
+   * such a byte for another character
+   */
+  public static boolean isAsciiCompatible(Charset encoding) {
+    String name = encoding.name().toUpperCase(Locale.ROOT);
+    return name.equals("US-ASCII") || name.equals("UTF-8") || name.startsWith("ISO-8859-")
+        || name.startsWith("WINDOWS-125");
+  }
+
+  /**
+   * @return the bytes of the given text, or null if it contains a non-ASCII character
+   */
+  public static byte[] toAscii(String text) {
+    byte[] ascii = new byte[text.length()];
+    for (int i = 0; i < ascii.length; i++) {
+      char c = text.charAt(i);
+      if (c >= 0x80) {
+        return null;
+      }
+      ascii[i] = (byte) c;
+    }
+    return ascii;
+  }
+
+  /**
+   * @return true if these lines hold the given number of first lines of the file, or all its lines if it has fewer
+   */
+  public boolean covers(int lineCount) {
+    return lineCount <= this.lineCount || endReached;
+  }
+
+  /**
+   * Tells if the given ASCII text appears in the first lines, like {@link String#contains(CharSequence)} would in the
+   * same decoded and normalized lines.
+   *
+   * @param ascii     the text to look for, as returned by {@link #toAscii(String)}
+   * @param lineCount the number of first lines to look into, which must be {@link #covers(int) covered}
+   */
+  public boolean contains(byte[] ascii, int lineCount) {
+    int lines = Math.min(lineCount, this.lineCount);
+    int length = lines == 0 ? 0 : lineEnds[lines - 1];
+    if (ascii.length == 0) {
+      return true;
+    }
+    for (int i = 0, last = length - ascii.length; i <= last; i++) {
+      if (bytes[i] == ascii[0] && matchesAt(ascii, i)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private boolean matchesAt(byte[] ascii, int offset) {
+    for (int j = 1; j < ascii.length; j++) {
+      if (bytes[offset + j] != ascii[j]) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static int endLine(byte[] out, int lineStart, int length) {
+    while (length > lineStart && out[length - 1] == ' ') {
+      length--;
+    }
+    out[length++] = '\n';
+    return length;
+  }
+}
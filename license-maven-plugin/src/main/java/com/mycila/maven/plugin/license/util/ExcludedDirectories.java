@@ -0,0 +1,138 @@
+/*
+ * Copyright (C) 2008-2025 Mycila (mathieu.carbou@gmail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.mycila.maven.plugin.license.util;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Tells which directories do not need to be visited when scanning for files, because every path below them is
+ * excluded.
+ * <p>
+ * A directory matching an exclusion pattern ending with {@code /**} cannot contain any selected file, since all its
+ * descendants match the same pattern. These patterns are compiled once: the {@code **}{@code /name/**} ones, like most
+ * of the {@link com.mycila.maven.plugin.license.Default#EXCLUDES default exclusions}, into a set of directory names,
+ * and the others into a single regular expression.
+ */
+final class ExcludedDirectories {
+
+  private final List<String> patterns = new ArrayList<>();
+  private final Set<String> names = new HashSet<>();
+  private final Pattern others;
+
+  /**
+   * @param excludes the exclusion patterns, normalized like the {@code DirectoryScanner} does. Only the ones ending
+   *                 with a separator followed by {@code **} are used.
+   */
+  ExcludedDirectories(String[] excludes) {
+    StringBuilder regex = new StringBuilder();
+    for (String exclude : excludes) {
+      if (!isDirectoryPattern(exclude)) {
+        continue;
+      }
+      List<String> tokens = tokenize(exclude);
+      patterns.add(exclude);
+      if (tokens.size() == 3 && tokens.get(0).equals("**") && tokens.get(2).equals("**") && isLiteral(tokens.get(1))) {
+        names.add(tokens.get(1));
+      } else {
+        regex.append(regex.length() == 0 ? "" : "|").append("(?:");
+        for (String token : tokens) {
+          regex.append(token.equals("**") ? "(?:[^/]*/)*" : toRegex(token) + "/");
+        }
+        regex.append(')');
+      }
+    }
+    others = regex.length() == 0 ? null : Pattern.compile(regex.toString());
+  }
+
+  /**
+   * @param directory the path of a directory, relative to the scanned base directory. A file path can be given as
+   *                  well, in which case the result tells if the file matches one of the patterns.
+   * @return true if all the files below this directory are excluded
+   */
+  boolean matches(String directory) {
+    String path = directory.replace(File.separatorChar, '/');
+    if (!names.isEmpty()) {
+      int start = 0;
+      while (start <= path.length()) {
+        int end = path.indexOf('/', start);
+        if (end < 0) {
+          end = path.length();
+        }
+        if (end > start && names.contains(path.substring(start, end))) {
+          return true;
+        }
+        start = end + 1;
+      }
+    }
+    return others != null && others.matcher(path + "/").matches();
+  }
+
+  /**
+   * @param exclude an exclusion pattern, normalized like the {@code DirectoryScanner} does
+   * @return true if a path matching this pattern is a directory whose descendants all match it too
+   */
+  static boolean isDirectoryPattern(String exclude) {
+    return !exclude.startsWith("%") && exclude.endsWith(File.separator + "**");
+  }
+
+  /**
+   * @return the exclusion patterns used to skip directories
+   */
+  List<String> getPatterns() {
+    return Collections.unmodifiableList(patterns);
+  }
+
+  private static List<String> tokenize(String pattern) {
+    List<String> tokens = new ArrayList<>();
+    for (String token : pattern.split(Pattern.quote(File.separator))) {
+      if (!token.isEmpty()) {
+        tokens.add(token);
+      }
+    }
+    return tokens;
+  }
+
+  private static boolean isLiteral(String token) {
+    return token.indexOf('*') < 0 && token.indexOf('?') < 0;
+  }
+
+  // same wildcards as the DirectoryScanner: '*' for any characters and '?' for one character, within a path segment
+  private static String toRegex(String token) {
+    StringBuilder regex = new StringBuilder();
+    StringBuilder literal = new StringBuilder();
+    for (char c : token.toCharArray()) {
+      if (c == '*' || c == '?') {
+        if (literal.length() > 0) {
+          regex.append(Pattern.quote(literal.toString()));
+          literal.setLength(0);
+        }
+        regex.append(c == '*' ? "[^/]*" : "[^/]");
+      } else {
+        literal.append(c);
+      }
+    }
+    if (literal.length() > 0) {
+      regex.append(Pattern.quote(literal.toString()));
+    }
+    return regex.toString();
+  }
+}
@@ -17,22 +17,51 @@ package com.mycila.maven.plugin.license.util;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.PosixFileAttributeView;
 
-import static com.mycila.maven.plugin.license.util.FileUtils.read;
-
+/**
+ * The content of a file, read lazily: only the characters needed by the lines which are visited are decoded, so
+ * that looking for a header at the top of a big file does not read it entirely. The rest of the file is only loaded
+ * when the whole content is needed. When the file is rewritten after its header was changed, the part which was not
+ * read is copied from the original file without being decoded.
+ */
 public final class FileContent {
+
+  private static final int INITIAL_CHUNK_SIZE = 8 * 1024;
+  private static final int MAX_CHUNK_SIZE = 1024 * 1024;
+
   private final File file;
-  private final StringBuilder fileContent;
-  private final boolean unix;
+  private final StringBuilder fileContent = new StringBuilder();
+  private final CharsetDecoder decoder;
+  private final boolean asciiCompatible;
+  private int chunkSize = INITIAL_CHUNK_SIZE;
+  private long decodedBytes;
+  private boolean loaded;
+  private boolean carriageReturn;
   private int oldPos;
   private int position;
+  private final LineView line = new LineView();
 
   public FileContent(File file, Charset encoding) {
+    this.file = file;
+    this.decoder = encoding.newDecoder()
+        .onMalformedInput(CodingErrorAction.REPLACE)
+        .onUnmappableCharacter(CodingErrorAction.REPLACE);
+    this.asciiCompatible = AsciiFirstLines.isAsciiCompatible(encoding);
     try {
-      this.file = file;
-      this.fileContent = new StringBuilder(read(file, encoding));
-      unix = fileContent.indexOf("\r") == -1;
+      readChunk(chunkSize);
     } catch (IOException e) {
       throw new IllegalArgumentException("Unable to read file " + file + ". Cause: " + e.getMessage(), e);
     }
@@ -53,19 +82,65 @@ public final class FileContent {
   }
 
   public boolean endReached() {
+    ensureLoaded(position + 1);
     return position >= fileContent.length();
   }
 
   public String nextLine() {
+    return nextLineView() == null ? null : line.toString();
+  }
+
+  /**
+   * Same as {@link #nextLine()}, without copying the line: the returned view reads the characters of the line in the
+   * content. The same view is returned by each call, showing the last line read, so it must not be kept after the next
+   * call nor used once the content is modified.
+   *
+   * @return a view of the next line, without its line terminator, or null at the end of the content
+   */
+  public CharSequence nextLineView() {
     if (endReached()) {
       return null;
     }
-    int lf = fileContent.indexOf("\n", position);
-    int eol = lf == -1 || lf == 0 ? fileContent.length() : fileContent.charAt(lf - 1) == '\r' ? lf - 1 : lf;
-    String str = fileContent.substring(position, eol);
+    int lf = indexOfLineFeed(position);
+    if (lf == 0) {
+      loadAll();
+    }
+    line.start = position;
+    line.end = lf == -1 || lf == 0 ? fileContent.length() : fileContent.charAt(lf - 1) == '\r' ? lf - 1 : lf;
     oldPos = position;
     position = lf == -1 ? fileContent.length() : lf + 1;
-    return str;
+    return line;
+  }
+
+  /**
+   * Returns the first lines of the original content, each followed by a line feed, like
+   * {@link FileUtils#readFirstLines(File, int, Charset)}. The current position is left unchanged, so the same content
+   * can be shared by several readers of the file header.
+   *
+   * @param lineCount the maximum number of lines to return
+   * @return the first lines
+   */
+  public String getFirstLines(int lineCount) {
+    StringBuilder sb = new StringBuilder();
+    int pos = 0;
+    while (lineCount > 0) {
+      ensureLoaded(pos + 1);
+      if (pos >= fileContent.length()) {
+        break;
+      }
+      int eol = pos;
+      char c = 0;
+      while (ensureLoaded(eol + 1) && (c = fileContent.charAt(eol)) != '\n' && c != '\r') {
+        eol++;
+      }
+      sb.append(fileContent, pos, eol).append('\n');
+      pos = eol + 1;
+      if (c == '\r' && ensureLoaded(pos + 1) && fileContent.charAt(pos) == '\n') {
+        pos++;
+      }
+      lineCount--;
+    }
+    return sb.toString();
   }
 
   public int getPosition() {
@@ -73,14 +148,17 @@ public final class FileContent {
   }
 
   public void delete(int start, int end) {
+    ensureLoaded(end);
     fileContent.delete(start, end);
   }
 
   public void insert(int index, String str) {
+    ensureLoaded(index);
     fileContent.insert(index, str);
   }
 
   public void removeDuplicatedEmptyEndLines() {
+    loadAll();
     int pos;
     while ((pos = fileContent.lastIndexOf("\n")) != -1) {
       boolean cr = false;
@@ -102,11 +180,120 @@ public final class FileContent {
   }
 
   public String getContent() {
+    loadAll();
     return fileContent.toString();
   }
 
+  /**
+   * @return true if the file does not contain any carriage return. The whole file is read to find out, but for ASCII
+   * compatible encodings the part which was not read yet is only searched for the byte of a carriage return.
+   */
   public boolean isUnix() {
-    return unix;
+    if (!loaded && !carriageReturn && asciiCompatible) {
+      try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+        ByteBuffer in = ByteBuffer.allocate(INITIAL_CHUNK_SIZE);
+        long pos = decodedBytes;
+        int read;
+        while (!carriageReturn && (read = channel.read(in, pos)) > 0) {
+          in.flip();
+          while (in.hasRemaining() && !carriageReturn) {
+            carriageReturn = in.get() == '\r';
+          }
+          in.clear();
+          pos += read;
+        }
+      } catch (IOException e) {
+        throw new IllegalStateException("Unable to read file " + file + ". Cause: " + e.getMessage(), e);
+      }
+      return !carriageReturn;
+    }
+    loadAll();
+    return !carriageReturn;
+  }
+
+  /**
+   * Tells if {@link #writeTo(File, Charset) writing} the content to the file it was read from would leave its bytes
+   * unchanged, e.g. when a header was replaced by the same one. Only the bytes of the part which was read are compared.
+   *
+   * @param encoding the encoding of the written characters
+   */
+  public boolean isUnchanged(Charset encoding) throws IOException {
+    if (!asciiCompatible || !encoding.equals(decoder.charset())) {
+      loadAll();
+    }
+    ByteBuffer head = encoding.encode(CharBuffer.wrap(fileContent));
+    try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+      if (head.remaining() != (loaded ? channel.size() : decodedBytes)) {
+        return false;
+      }
+      ByteBuffer original = ByteBuffer.allocate(Math.min(head.remaining(), MAX_CHUNK_SIZE));
+      long pos = 0;
+      while (head.hasRemaining()) {
+        original.clear();
+        original.limit(Math.min(original.capacity(), head.remaining()));
+        int read = channel.read(original, pos);
+        if (read <= 0) {
+          return false;
+        }
+        original.flip();
+        ByteBuffer expected = head.slice();
+        expected.limit(read);
+        if (!expected.equals(original)) {
+          return false;
+        }
+        head.position(head.position() + read);
+        pos += read;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Writes the content to a file, through a temporary file of the same directory which then replaces it, so that the
+   * file is never left partially written. For ASCII compatible encodings, the part of the original file which was not
+   * read is copied as is after the characters which were read, instead of being decoded and encoded again.
+   *
+   * @param dest     the file to write, which can be the one the content was read from
+   * @param encoding the encoding of the written characters
+   */
+  public void writeTo(File dest, Charset encoding) throws IOException {
+    if (!asciiCompatible || !encoding.equals(decoder.charset())) {
+      loadAll();
+    }
+    Path target = dest.toPath();
+    if (Files.isSymbolicLink(target)) {
+      target = target.toRealPath();
+    }
+    if (Files.exists(target) && !Files.isWritable(target)) {
+      throw new IOException(target + " is not writable");
+    }
+    // the default excludes skip the files ending with a tilde, so that a concurrent scan does not select it
+    Path tmp = Files.createTempFile(target.toAbsolutePath().getParent(), "." + target.getFileName() + ".", "~");
+    try {
+      try (FileChannel out = FileChannel.open(tmp, StandardOpenOption.WRITE)) {
+        ByteBuffer head = encoding.encode(CharBuffer.wrap(fileContent));
+        while (head.hasRemaining()) {
+          out.write(head);
+        }
+        if (!loaded) {
+          try (FileChannel in = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            long pos = decodedBytes;
+            long transferred;
+            while (pos < in.size() && (transferred = in.transferTo(pos, in.size() - pos, out)) > 0) {
+              pos += transferred;
+            }
+          }
+        }
+      }
+      copyPermissions(Files.exists(target) ? target : file.toPath(), tmp);
+      try {
+        Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+      } catch (AtomicMoveNotSupportedException e) {
+        Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING);
+      }
+    } finally {
+      Files.deleteIfExists(tmp);
+    }
   }
 
   @Override
@@ -114,4 +301,118 @@ public final class FileContent {
     return file.toString();
   }
 
+  // for tests
+  int getLoadedLength() {
+    return fileContent.length();
+  }
+
+  private static void copyPermissions(Path from, Path to) throws IOException {
+    PosixFileAttributeView fromView = Files.getFileAttributeView(from, PosixFileAttributeView.class);
+    PosixFileAttributeView toView = Files.getFileAttributeView(to, PosixFileAttributeView.class);
+    if (fromView != null && toView != null) {
+      toView.setPermissions(fromView.readAttributes().permissions());
+    }
+  }
+
+  private int indexOfLineFeed(int from) {
+    int lf;
+    while ((lf = fileContent.indexOf("\n", from)) == -1 && !loaded) {
+      from = fileContent.length();
+      readMore();
+    }
+    return lf;
+  }
+
+  private boolean ensureLoaded(int length) {
+    while (fileContent.length() < length && !loaded) {
+      readMore();
+    }
+    return fileContent.length() >= length;
+  }
+
+  private void loadAll() {
+    while (!loaded) {
+      read(Integer.MAX_VALUE - 8);
+    }
+  }
+
+  private void readMore() {
+    read(chunkSize);
+    chunkSize = Math.min(chunkSize * 2, MAX_CHUNK_SIZE);
+  }
+
+  private void read(int maxBytes) {
+    try {
+      readChunk(maxBytes);
+    } catch (IOException e) {
+      throw new IllegalStateException("Unable to read file " + file + ". Cause: " + e.getMessage(), e);
+    }
+  }
+
+  /**
+   * Decodes at most {@code maxBytes} more bytes of the file. The file is not kept open between two reads.
+   */
+  private void readChunk(int maxBytes) throws IOException {
+    try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+      long remaining = Math.max(0, channel.size() - decodedBytes);
+      ByteBuffer in = ByteBuffer.allocate((int) Math.min(remaining, maxBytes));
+      while (in.hasRemaining() && channel.read(in, decodedBytes + in.position()) > 0) {
+        // read until the buffer is full or the end of the file
+      }
+      in.flip();
+      boolean endOfInput = decodedBytes + in.limit() >= channel.size();
+      CharBuffer out = CharBuffer.allocate(in.limit() + 16);
+      CoderResult result;
+      while ((result = decoder.decode(in, out, endOfInput)).isOverflow()) {
+        out = append(out);
+      }
+      if (endOfInput) {
+        while (decoder.flush(out).isOverflow()) {
+          out = append(out);
+        }
+        loaded = true;
+      } else if (result.isUnderflow() && in.position() == 0) {
+        // not even a complete character could be decoded: the file changed while being read
+        loaded = true;
+      }
+      decodedBytes += in.position();
+      append(out);
+    }
+  }
+
+  private final class LineView implements CharSequence {
+    private int start;
+    private int end;
+
+    @Override
+    public int length() {
+      return end - start;
+    }
+
+    @Override
+    public char charAt(int index) {
+      return fileContent.charAt(start + index);
+    }
+
+    @Override
+    public CharSequence subSequence(int from, int to) {
+      return fileContent.subSequence(start + from, start + to);
+    }
+
+    @Override
+    public String toString() {
+      return fileContent.substring(start, end);
+    }
+  }
+
+  private CharBuffer append(CharBuffer out) {
+    out.flip();
+    for (int i = out.position(); i < out.limit() && !carriageReturn; i++) {
+      carriageReturn = out.get(i) == '\r';
+    }
+    fileContent.append(out);
+    out.clear();
+    return out;
+  }
+
 }
@@ -0,0 +1,151 @@
+/*
+ * Copyright (C) 2008-2025 Mycila (mathieu.carbou@gmail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.mycila.maven.plugin.license.util;
+
+import org.apache.maven.shared.utils.io.MatchPatterns;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.DirectoryIteratorException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Predicate;
+
+/**
+ * Lists the files of a directory tree matching include and exclude patterns, like the
+ * {@link org.apache.maven.shared.utils.io.DirectoryScanner} used by {@link Selection}, but visiting the directories
+ * concurrently on a {@link ForkJoinPool}.
+ * <p>
+ * Each directory is listed with a single {@link DirectoryStream}, and the attributes of its entries are read while
+ * iterating over it, which lets file systems returning them with the listing avoid one call per entry. The same rules
+ * as the {@code DirectoryScanner} decide which directories are visited, so that both select the same files:
+ * <ul>
+ *   <li>a directory below which every file is excluded is not visited;</li>
+ *   <li>an included and not excluded directory is visited;</li>
+ *   <li>any other directory is visited if it could contain included files.</li>
+ * </ul>
+ * Symbolic links are followed. Selected files are given to a consumer as soon as they are found, from the threads of
+ * the pool.
+ */
+final class ParallelDirectoryScanner {
+
+  private final File basedir;
+  private final MatchPatterns includes;
+  private final MatchPatterns excludes;
+  private final ExcludedDirectories excludedDirectories;
+  private final Predicate<String> consumer;
+  private volatile boolean stopped;
+
+  /**
+   * @param includes            the include patterns, normalized like the {@code DirectoryScanner} does
+   * @param excludes            the exclude patterns, normalized like the {@code DirectoryScanner} does
+   * @param excludedDirectories the directories which must not be visited
+   * @param consumer            called with each selected file, relative to the base directory, with native
+   *                            separators, in no particular order and possibly from several threads at the same
+   *                            time. The scan stops as soon as it returns false.
+   */
+  ParallelDirectoryScanner(File basedir, MatchPatterns includes, MatchPatterns excludes,
+                           ExcludedDirectories excludedDirectories, Predicate<String> consumer) {
+    this.basedir = basedir;
+    this.includes = includes;
+    this.excludes = excludes;
+    this.excludedDirectories = excludedDirectories;
+    this.consumer = consumer;
+  }
+
+  /**
+   * @param parallelism the number of directories listed at the same time
+   * @return false if the scan was stopped by the consumer
+   */
+  boolean scan(int parallelism) {
+    if (!basedir.exists()) {
+      throw new IllegalStateException("basedir " + basedir + " does not exist");
+    }
+    if (!basedir.isDirectory()) {
+      throw new IllegalStateException("basedir " + basedir + " is not a directory");
+    }
+    ForkJoinPool pool = new ForkJoinPool(parallelism);
+    try {
+      pool.invoke(new DirectoryTask(basedir.toPath(), ""));
+    } finally {
+      pool.shutdown();
+    }
+    return !stopped;
+  }
+
+  private final class DirectoryTask extends RecursiveAction {
+    private static final long serialVersionUID = 1L;
+
+    private final transient Path directory;
+    private final String prefix;
+
+    private DirectoryTask(Path directory, String prefix) {
+      this.directory = directory;
+      this.prefix = prefix;
+    }
+
+    @Override
+    protected void compute() {
+      if (stopped) {
+        return;
+      }
+      List<DirectoryTask> subdirectories = new ArrayList<>();
+      try (DirectoryStream<Path> entries = Files.newDirectoryStream(directory)) {
+        for (Path entry : entries) {
+          if (stopped) {
+            return;
+          }
+          String name = prefix + entry.getFileName();
+          BasicFileAttributes attributes;
+          try {
+            attributes = Files.readAttributes(entry, BasicFileAttributes.class);
+          } catch (IOException e) {
+            // broken link or entry removed since listed: neither a file nor a directory
+            continue;
+          }
+          if (attributes.isDirectory()) {
+            if (shouldVisit(name)) {
+              subdirectories.add(new DirectoryTask(entry, name + File.separator));
+            }
+          } else if (attributes.isRegularFile() && includes.matches(name, true) && !excludes.matches(name, true)
+              && !consumer.test(name)) {
+            stopped = true;
+            return;
+          }
+        }
+      } catch (IOException | DirectoryIteratorException e) {
+        // unreadable directory: skipped, like File.list() returning null
+      }
+      invokeAll(subdirectories);
+    }
+
+    private boolean shouldVisit(String name) {
+      if (excludedDirectories.matches(name)) {
+        return false;
+      }
+      if (includes.matches(name, true) && !excludes.matches(name, true)) {
+        return true;
+      }
+      return includes.matchesPatternStart(name, true);
+    }
+  }
+}
@@ -23,8 +23,15 @@ import org.apache.maven.shared.utils.io.ScanConductor;
 
 import java.io.File;
 import java.util.ArrayList;
-import java.util.Collections;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Predicate;
 
 import static java.util.Arrays.asList;
 
@@ -34,23 +41,147 @@ public final class Selection {
   private final String[] included;
   private final String[] excluded;
   private final Log log;
-  private final String[] userExcluded;
+  private final int scanThreads;
+  private final MatchPatterns includePatterns;
+  private final MatchPatterns excludePatterns;
 
   private DirectoryScanner scanner;
+  private String[] selectedFiles;
 
   public Selection(File basedir, String[] included, String[] excluded, boolean useDefaultExcludes,
                    final Log log) {
+    this(basedir, included, excluded, useDefaultExcludes, 0, log);
+  }
+
+  /**
+   * @param scanThreads if greater than 0, the base directory is scanned by a {@link ParallelDirectoryScanner} listing
+   *                    this number of directories at the same time, instead of the plexus {@link DirectoryScanner}
+   */
+  public Selection(File basedir, String[] included, String[] excluded, boolean useDefaultExcludes,
+                   int scanThreads, final Log log) {
     this.basedir = basedir;
     this.log = log;
+    this.scanThreads = scanThreads;
     String[] overrides = buildOverrideInclusions(useDefaultExcludes, included);
     this.included = buildInclusions(included, overrides);
-    this.userExcluded = excluded;
     this.excluded = buildExclusions(useDefaultExcludes, excluded, overrides);
+    this.includePatterns = MatchPatterns.from(normalizePatterns(this.included));
+    this.excludePatterns = MatchPatterns.from(normalizePatterns(this.excluded));
+  }
+
+  /**
+   * Builds a selection of all the files selected by at least one of the given selections, so that their common base
+   * directory is scanned once. Its inclusions are the inclusions of all of them, and its exclusions the ones they all
+   * share: each file it selects must still be checked with {@link #isSelected(String)} for each of them.
+   *
+   * @param selections selections of the same base directory
+   */
+  public static Selection union(List<Selection> selections, int scanThreads, Log log) {
+    final Set<String> inclusions = new LinkedHashSet<>();
+    final Set<String> exclusions = new LinkedHashSet<>(asList(selections.get(0).excluded));
+    for (final Selection selection : selections) {
+      if (!selection.basedir.equals(selections.get(0).basedir)) {
+        throw new IllegalArgumentException("Different base directories: " + selections.get(0).basedir + ", "
+            + selection.basedir);
+      }
+      inclusions.addAll(asList(selection.included));
+      exclusions.retainAll(asList(selection.excluded));
+    }
+    return new Selection(selections.get(0).basedir, inclusions.toArray(new String[0]),
+        exclusions.toArray(new String[0]), false, scanThreads, log);
+  }
+
+  /**
+   * Tells if a file is selected by its path, matching the inclusions and not the exclusions, without checking that it
+   * exists.
+   *
+   * @param name path relative to the base directory, with native separators
+   */
+  public boolean isSelected(String name) {
+    return includePatterns.matches(name, true) && !excludePatterns.matches(name, true);
   }
 
   public String[] getSelectedFiles() {
-    scanIfneeded();
-    return scanner.getIncludedFiles();
+    if (selectedFiles == null) {
+      final Collection<String> files = new ConcurrentLinkedQueue<>();
+      forEachSelectedFile(files::add);
+      selectedFiles = files.toArray(new String[0]);
+      if (scanThreads > 0) {
+        Arrays.sort(selectedFiles);
+      }
+    }
+    return selectedFiles;
+  }
+
+  /**
+   * Scans the base directory, giving each selected file to the consumer as soon as it is found instead of waiting for
+   * the end of the scan. With a parallel scan, the consumer is called from several threads at the same time.
+   *
+   * @param consumer called with the path of each selected file, relative to the base directory, with native
+   *                 separators. The scan stops as soon as it returns false.
+   * @return false if the scan was stopped by the consumer
+   */
+  public boolean forEachSelectedFile(final Predicate<String> consumer) {
+    final String[] excludes = normalizePatterns(excluded);
+    final ExcludedDirectories excludedDirectories = new ExcludedDirectories(excludes);
+    if (log.isDebugEnabled()) {
+      log.debug("Starting to visit " + basedir + ", excluding directories: " + excludedDirectories.getPatterns());
+    }
+    if (scanThreads > 0) {
+      return new ParallelDirectoryScanner(basedir, MatchPatterns.from(normalizePatterns(included)),
+          MatchPatterns.from(excludes), excludedDirectories, consumer).scan(scanThreads);
+    }
+    // The DirectoryScanner enters excluded directories without asking the conductor, so the directory exclusions are
+    // not given to it: the conductor skips the directories matching them and filters the files they match instead.
+    final List<String> fileExcludes = new ArrayList<>(excludes.length);
+    for (final String exclude : excludes) {
+      if (!ExcludedDirectories.isDirectoryPattern(exclude)) {
+        fileExcludes.add(exclude);
+      }
+    }
+    final AtomicBoolean stopped = new AtomicBoolean();
+    scanner = new DirectoryScanner();
+    scanner.setScanConductor(new ScanConductor() {
+      @Override
+      public ScanAction visitDirectory(final String name, final File directory) {
+        if (excludedDirectories.matches(name)) {
+          return ScanAction.NO_RECURSE;
+        }
+        return ScanAction.CONTINUE;
+      }
+
+      @Override
+      public ScanAction visitFile(final String name, final File file) {
+        if (excludedDirectories.matches(name) || consumer.test(name)) {
+          return ScanAction.CONTINUE;
+        }
+        stopped.set(true);
+        return ScanAction.ABORT;
+      }
+    });
+    scanner.setBasedir(basedir);
+    scanner.setIncludes(included);
+    scanner.setExcludes(fileExcludes.toArray(new String[0]));
+    scanner.scan();
+    return !stopped.get();
+  }
+
+  /**
+   * Selects the files among the given candidates instead of scanning the base directory. A candidate is selected if
+   * it is an existing file matching the inclusions and not the exclusions.
+   *
+   * @param candidates paths relative to the base directory, delimited by {@code '/'}
+   * @return the selected files, with native separators, like {@link #getSelectedFiles()}
+   */
+  public String[] getSelectedFiles(Collection<String> candidates) {
+    final List<String> selected = new ArrayList<>();
+    for (final String candidate : new TreeSet<>(candidates)) {
+      final String name = candidate.replace('/', File.separatorChar);
+      if (isSelected(name) && new File(basedir, name).isFile()) {
+        selected.add(name);
+      }
+    }
+    return selected.toArray(new String[0]);
   }
 
   // for tests
@@ -70,49 +201,17 @@ public final class Selection {
     return excluded;
   }
 
-  private void scanIfneeded() {
-    if (scanner == null) {
-      final boolean debugEnabled = log.isDebugEnabled();
-      final String[] folderExcludes = findFolderExcludes();
-      final MatchPatterns excludePatterns = MatchPatterns.from(folderExcludes);
-      if (debugEnabled) {
-        log.debug("Starting to visit " + basedir + ", excluding directories: " + asList(folderExcludes));
+  // same normalization as the DirectoryScanner
+  private static String[] normalizePatterns(final String[] patterns) {
+    final String[] normalized = new String[patterns.length];
+    for (int i = 0; i < patterns.length; i++) {
+      String pattern = patterns[i].trim().replace('/', File.separatorChar).replace('\\', File.separatorChar);
+      if (pattern.endsWith(File.separator)) {
+        pattern += "**";
       }
-      scanner = new DirectoryScanner();
-      scanner.setScanConductor(new ScanConductor() {
-        @Override
-        public ScanAction visitDirectory(final String name, final File directory) {
-          if (excludePatterns.matches(name, true)) {
-            return ScanAction.NO_RECURSE;
-          }
-          return ScanAction.CONTINUE;
-        }
-
-        @Override
-        public ScanAction visitFile(final String name, final File file) {
-          return ScanAction.CONTINUE;
-        }
-      });
-      scanner.setBasedir(basedir);
-      scanner.setIncludes(included);
-      scanner.setExcludes(excluded);
-      scanner.scan();
+      normalized[i] = pattern;
     }
-  }
-
-  private String[] findFolderExcludes() { // less we keep, less overhead we get so we only use user excludes there
-    final List<String> excludes = new ArrayList<>(excluded.length / 2 /*estimate*/);
-    for (final String exclude : (userExcluded != null ? userExcluded : excluded)) {
-      if (isFolderExclusion(exclude)) {
-        excludes.add(exclude);
-      }
-    }
-    Collections.reverse(excludes); // assume user ones are more important than the set of defaults we appended
-    return excludes.toArray(new String[0]);
-  }
-
-  private boolean isFolderExclusion(final String exclude) {
-    return exclude.endsWith(File.separator + "**");
+    return normalized;
   }
 
   private static String[] buildExclusions(boolean useDefaultExcludes, String[] excludes, String[] overrides) {
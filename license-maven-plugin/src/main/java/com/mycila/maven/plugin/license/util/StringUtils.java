@@ -31,6 +31,60 @@ public final class StringUtils {
     return s.substring(0, i + 1);
   }
 
+  /**
+   * @return true if the given characters are all whitespace, like {@code s.trim().isEmpty()}
+   */
+  public static boolean isBlank(CharSequence s) {
+    for (int i = 0; i < s.length(); i++) {
+      if (s.charAt(i) > ' ') {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  public static boolean startsWith(CharSequence s, String prefix) {
+    if (s.length() < prefix.length()) {
+      return false;
+    }
+    for (int i = 0; i < prefix.length(); i++) {
+      if (s.charAt(i) != prefix.charAt(i)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * @param lowerCase a string in lower case
+   * @return true if the given characters, in lower case, contain the given string
+   */
+  public static boolean containsLowerCase(CharSequence s, String lowerCase) {
+    return containsLowerCase("", s, lowerCase);
+  }
+
+  /**
+   * @param lowerCase a string in lower case
+   * @return true if the characters of both sequences joined, in lower case, contain the given string
+   */
+  public static boolean containsLowerCase(CharSequence first, CharSequence second, String lowerCase) {
+    final int length = first.length() + second.length();
+    for (int start = 0; start <= length - lowerCase.length(); start++) {
+      int i = 0;
+      while (i < lowerCase.length() && Character.toLowerCase(charAt(first, second, start + i)) == lowerCase.charAt(i)) {
+        i++;
+      }
+      if (i == lowerCase.length()) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static char charAt(CharSequence first, CharSequence second, int index) {
+    return index < first.length() ? first.charAt(index) : second.charAt(index - first.length());
+  }
+
   public static String padRight(String s, int len) {
     if (s == null || s.length() >= len) {
       return s;
@@ -0,0 +1,197 @@
+/*
+ * Copyright (C) 2008-2025 Mycila (mathieu.carbou@gmail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.mycila.maven.plugin.license;
+
+import org.apache.maven.artifact.DefaultArtifact;
+import org.apache.maven.artifact.handler.DefaultArtifactHandler;
+import org.apache.maven.execution.DefaultMavenExecutionRequest;
+import org.apache.maven.execution.DefaultMavenExecutionResult;
+import org.apache.maven.execution.MavenSession;
+import org.apache.maven.model.Build;
+import org.apache.maven.model.Model;
+import org.apache.maven.model.Plugin;
+import org.apache.maven.model.Reporting;
+import org.apache.maven.project.MavenProject;
+import org.codehaus.plexus.util.xml.Xpp3Dom;
+import org.eclipse.aether.DefaultRepositorySystemSession;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+class AggregateTest {
+
+  @TempDir
+  Path tempFolder;
+
+  @Test
+  void aggregateExecutionProcessesAllTheModules() throws Exception {
+    Path root = tempFolder.resolve("root");
+    for (String file : Arrays.asList("a.txt", "mod1/b.txt", "mod2/d.txt")) {
+      write(root.resolve(file), "content\n");
+    }
+    MavenProject rootProject = newProject(root, "root", "2000", configuration());
+    MavenProject mod1 = newProject(root.resolve("mod1"), "mod1", "2000", configuration());
+    MavenProject mod2 = newProject(root.resolve("mod2"), "mod2", "2000", configuration("header", "OTHER"));
+    MavenSession session = newSession(rootProject, mod1, mod2);
+
+    LicenseFormatMojo aggregateFormat = newFormat(rootProject, session);
+    aggregateFormat.aggregate = true;
+    aggregateFormat.execute();
+    Assertions.assertTrue(hasHeader(root.resolve("a.txt")));
+    Assertions.assertTrue(hasHeader(root.resolve("mod1/b.txt")));
+    Assertions.assertTrue(hasHeader(root.resolve("mod2/d.txt")));
+    Assertions.assertFalse(Files.exists(root.resolve("mod1/target/site/license-plugin-report.xml")));
+
+    // without aggregateModules, the executions of the modules still run
+    write(root.resolve("mod1/new.txt"), "content\n");
+    newFormat(mod1, session).execute();
+    Assertions.assertTrue(hasHeader(root.resolve("mod1/new.txt")));
+  }
+
+  @Test
+  void aggregateModulesProcessesTheModulesWithTheSameConfiguration() throws Exception {
+    Path root = tempFolder.resolve("root");
+    for (String file : Arrays.asList("a.txt", "mod1/b.txt", "mod1/c.txt", "mod2/d.txt", "mod2/sub/e.txt")) {
+      write(root.resolve(file), "content\n");
+    }
+    Xpp3Dom aggregating = configuration("aggregate", "true", "aggregateModules", "true");
+    MavenProject rootProject = newProject(root, "root", "2000", aggregating);
+    MavenProject mod1 = newProject(root.resolve("mod1"), "mod1", "2010", aggregating);
+    // e.g. from a profile active in this module only
+    MavenProject mod2 = newProject(root.resolve("mod2"), "mod2", "2000",
+        configuration("aggregate", "true", "aggregateModules", "true", "header", "OTHER"));
+    MavenProject sub = newProject(root.resolve("mod2/sub"), "sub", "2000", aggregating);
+    MavenSession session = newSession(rootProject, mod1, mod2, sub);
+
+    // the execution of the aggregated module is skipped, even when it runs before the aggregating one
+    newFormat(mod1, session).execute();
+    Assertions.assertFalse(hasHeader(root.resolve("mod1/b.txt")));
+
+    newFormat(rootProject, session).execute();
+    Assertions.assertTrue(read(root.resolve("a.txt")).contains("Copyright 2000 My License"));
+    // rendered with the properties of the module
+    Assertions.assertTrue(read(root.resolve("mod1/b.txt")).contains("Copyright 2010 My License"));
+    Assertions.assertFalse(hasHeader(root.resolve("mod2/d.txt")));
+    Assertions.assertFalse(hasHeader(root.resolve("mod2/sub/e.txt")));
+
+    // the results of the aggregated module are in its own report
+    String mod1Report = read(root.resolve("mod1/target/site/license-plugin-report.xml"));
+    Assertions.assertTrue(mod1Report.contains("artifactId=\"mod1\""), mod1Report);
+    Assertions.assertTrue(mod1Report.contains("path=\"b.txt\" result=\"ADDED\""), mod1Report);
+    Assertions.assertFalse(mod1Report.contains("a.txt"), mod1Report);
+    Assertions.assertFalse(Files.exists(root.resolve("mod2/target/site/license-plugin-report.xml")));
+
+    // the module with another configuration is processed by its own execution, without the module below it whose
+    // configuration differs from its own
+    newFormat(mod2, session).execute();
+    Assertions.assertTrue(hasHeader(root.resolve("mod2/d.txt")));
+    Assertions.assertFalse(hasHeader(root.resolve("mod2/sub/e.txt")));
+    newFormat(sub, session).execute();
+    Assertions.assertTrue(hasHeader(root.resolve("mod2/sub/e.txt")));
+  }
+
+  @Test
+  void aggregateModulesIsResolvedFromTheProperties() throws Exception {
+    Path root = tempFolder.resolve("root");
+    MavenProject rootProject = newProject(root, "root", "2000", configuration("aggregate", "${aggregate}"));
+    rootProject.getProperties().setProperty("aggregate", "true");
+    rootProject.getProperties().setProperty("license.aggregateModules", "true");
+    MavenProject mod1 = newProject(root.resolve("mod1"), "mod1", "2000", configuration("aggregate", "${aggregate}"));
+    MavenSession session = newSession(rootProject, mod1);
+    Assertions.assertSame(rootProject, AggregatedModules.findAggregator(session, null, mod1));
+    Assertions.assertNull(AggregatedModules.findAggregator(session, null, rootProject));
+
+    session.getUserProperties().setProperty("license.skip", "true");
+    Assertions.assertNull(AggregatedModules.findAggregator(session, null, mod1));
+  }
+
+  private static LicenseFormatMojo newFormat(MavenProject project, MavenSession session) {
+    Xpp3Dom configuration = (Xpp3Dom) project.getPlugin(AggregatedModules.PLUGIN_KEY).getConfiguration();
+    LicenseFormatMojo format = new LicenseFormatMojo();
+    format.defaultBasedir = project.getBasedir();
+    format.legacyConfigInlineHeader = "Copyright ${project.inceptionYear} My License";
+    format.aggregate = configuration.getChild("aggregate") != null;
+    format.aggregateModules = configuration.getChild("aggregateModules") != null;
+    format.project = project;
+    format.session = session;
+    format.reportLocation = new File(project.getBasedir(), "target/site/license-plugin-report.xml");
+    return format;
+  }
+
+  private static MavenSession newSession(MavenProject... projects) {
+    MavenSession session = new MavenSession(null, new DefaultRepositorySystemSession(),
+        new DefaultMavenExecutionRequest(), new DefaultMavenExecutionResult());
+    session.setProjects(Arrays.asList(projects));
+    return session;
+  }
+
+  private static Xpp3Dom configuration(String... parameters) {
+    Xpp3Dom configuration = new Xpp3Dom("configuration");
+    for (int i = 0; i < parameters.length; i += 2) {
+      Xpp3Dom parameter = new Xpp3Dom(parameters[i]);
+      parameter.setValue(parameters[i + 1]);
+      configuration.addChild(parameter);
+    }
+    return configuration;
+  }
+
+  /**
+   * @param configuration the effective configuration of the plugin in the project
+   */
+  private static MavenProject newProject(Path basedir, String artifactId, String inceptionYear,
+                                         Xpp3Dom configuration) {
+    Model model = new Model();
+    model.setGroupId("com.example");
+    model.setArtifactId(artifactId);
+    model.setVersion("1.0");
+    model.setInceptionYear(inceptionYear);
+    Reporting reporting = new Reporting();
+    reporting.setOutputDirectory(basedir.resolve("target/site").toString());
+    model.setReporting(reporting);
+    Plugin plugin = new Plugin();
+    plugin.setGroupId("com.mycila");
+    plugin.setArtifactId("license-maven-plugin");
+    plugin.setConfiguration(configuration);
+    model.setBuild(new Build());
+    model.getBuild().addPlugin(plugin);
+    MavenProject project = new MavenProject(model);
+    project.setFile(basedir.resolve("pom.xml").toFile());
+    project.setArtifact(new DefaultArtifact("com.example", artifactId, "1.0", "compile", "pom", null,
+        new DefaultArtifactHandler("pom")));
+    return project;
+  }
+
+  private static boolean hasHeader(Path file) throws IOException {
+    return read(file).contains("My License");
+  }
+
+  private static String read(Path file) throws IOException {
+    return new String(Files.readAllBytes(file), UTF_8);
+  }
+
+  private static void write(Path file, String content) throws IOException {
+    Files.createDirectories(file.getParent());
+    Files.write(file, content.getBytes(UTF_8));
+  }
+}
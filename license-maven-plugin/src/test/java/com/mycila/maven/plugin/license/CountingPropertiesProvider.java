@@ -0,0 +1,56 @@
+/*
+ * Copyright (C) 2008-2025 Mycila (mathieu.carbou@gmail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.mycila.maven.plugin.license;
+
+import com.mycila.maven.plugin.license.document.Document;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Test-only {@link PropertiesProvider} declaring the {@value #KEY} property and counting how many times it is used.
+ */
+public class CountingPropertiesProvider implements PropertiesProvider {
+
+  static final String KEY = "counting.value";
+  static final AtomicInteger INITIALIZED = new AtomicInteger();
+  static final AtomicInteger CHECKED = new AtomicInteger();
+  static final AtomicInteger ADJUSTED = new AtomicInteger();
+
+  @Override
+  public Set<String> getPropertyKeys() {
+    return Set.of(KEY);
+  }
+
+  @Override
+  public void init(AbstractLicenseMojo mojo, Map<String, String> currentProperties) {
+    INITIALIZED.incrementAndGet();
+  }
+
+  @Override
+  public void checkEnvironment(AbstractLicenseMojo mojo, Map<String, String> currentProperties) {
+    CHECKED.incrementAndGet();
+  }
+
+  @Override
+  public Map<String, String> adjustProperties(AbstractLicenseMojo mojo,
+                                              Map<String, String> currentProperties, Document document) {
+    ADJUSTED.incrementAndGet();
+    return Collections.singletonMap(KEY, "counted");
+  }
+}
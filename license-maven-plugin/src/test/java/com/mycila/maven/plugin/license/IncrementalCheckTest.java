@@ -0,0 +1,132 @@
+/*
+ * Copyright (C) 2008-2025 Mycila (mathieu.carbou@gmail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.mycila.maven.plugin.license;
+
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.testing.stubs.MavenProjectStub;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.util.List;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+class IncrementalCheckTest {
+
+  private static final FileTime OLD = FileTime.from(Instant.parse("2020-01-01T00:00:00Z"));
+
+  @TempDir
+  Path tempFolder;
+
+  @Test
+  void unchangedFilesAreNotCheckedAgain() throws Exception {
+    Path basedir = tempFolder.resolve("src");
+    Path stateDir = tempFolder.resolve("state");
+    Files.createDirectories(basedir);
+    Path a = write(basedir.resolve("a.txt"), "first file\n");
+    Path b = write(basedir.resolve("b.txt"), "second file\n");
+
+    LicenseFormatMojo format = new LicenseFormatMojo();
+    format.defaultBasedir = basedir.toFile();
+    format.legacyConfigInlineHeader = "My License";
+    format.project = new MavenProjectStub();
+    format.execute();
+    Files.setLastModifiedTime(a, OLD);
+    Files.setLastModifiedTime(b, OLD);
+
+    newCheck(basedir, stateDir, true).execute();
+    List<String> state = Files.readAllLines(stateDir.resolve("license-set-0.state"), UTF_8);
+    Assertions.assertEquals(4, state.size());
+    Assertions.assertTrue(state.get(2).endsWith(" a.txt"));
+    Assertions.assertTrue(state.get(3).endsWith(" b.txt"));
+
+    // same size and modification time: the file is trusted without being read
+    String header = new String(Files.readAllBytes(a), UTF_8);
+    write(a, header.replace("My License", "No License"));
+    Files.setLastModifiedTime(a, OLD);
+    newCheck(basedir, stateDir, true).execute();
+    assertMissing(newCheck(basedir, stateDir, false));
+
+    // modification time changed: the content hash is compared
+    Files.setLastModifiedTime(a, FileTime.from(Instant.parse("2021-01-01T00:00:00Z")));
+    assertMissing(newCheck(basedir, stateDir, true));
+    write(a, header);
+    newCheck(basedir, stateDir, true).execute();
+
+    // a configuration change invalidates the whole state
+    write(b, new String(Files.readAllBytes(b), UTF_8).replace("My License", "No License"));
+    Files.setLastModifiedTime(b, OLD);
+    newCheck(basedir, stateDir, true).execute();
+    LicenseCheckMojo check = newCheck(basedir, stateDir, true);
+    check.legacyConfigKeywords = new String[]{"license"};
+    assertMissing(check);
+  }
+
+  @Test
+  void missingHeadersAreNotRecorded() throws Exception {
+    Path basedir = tempFolder.resolve("src");
+    Path stateDir = tempFolder.resolve("state");
+    Files.createDirectories(basedir);
+    Files.setLastModifiedTime(write(basedir.resolve("a.txt"), "no header\n"), OLD);
+
+    assertMissing(newCheck(basedir, stateDir, true));
+    assertMissing(newCheck(basedir, stateDir, true));
+    Assertions.assertEquals(2, Files.readAllLines(stateDir.resolve("license-set-0.state"), UTF_8).size());
+  }
+
+  @Test
+  void corruptedStateIsIgnored() throws Exception {
+    Path stateFile = tempFolder.resolve("license-set-0.state");
+    Files.setLastModifiedTime(write(tempFolder.resolve("a.txt"), "content"), OLD);
+    write(stateFile, "license-maven-plugin/incremental-check/1\nfingerprint\nnot a valid line\n");
+    Assertions.assertEquals(0, IncrementalCheckState.load(stateFile, "fingerprint").size());
+    Assertions.assertEquals(0, IncrementalCheckState.load(tempFolder.resolve("missing.state"), "fingerprint").size());
+
+    IncrementalCheckState state = IncrementalCheckState.load(stateFile, "fingerprint");
+    File file = tempFolder.resolve("a.txt").toFile();
+    state.recordPresent("a.txt", file, state.snapshot(file));
+    state.save();
+    Assertions.assertEquals(1, IncrementalCheckState.load(stateFile, "fingerprint").size());
+    Assertions.assertTrue(IncrementalCheckState.load(stateFile, "fingerprint").isUnchanged("a.txt", file));
+    Assertions.assertEquals(0, IncrementalCheckState.load(stateFile, "other fingerprint").size());
+  }
+
+  private static LicenseCheckMojo newCheck(Path basedir, Path stateDir, boolean incremental) {
+    LicenseCheckMojo check = new LicenseCheckMojo();
+    check.defaultBasedir = basedir.toFile();
+    check.legacyConfigInlineHeader = "My License";
+    check.project = new MavenProjectStub();
+    check.incremental = incremental;
+    check.incrementalStateDirectory = stateDir.toFile();
+    return check;
+  }
+
+  private static void assertMissing(LicenseCheckMojo check) {
+    MojoExecutionException e = Assertions.assertThrows(MojoExecutionException.class, check::execute);
+    Assertions.assertEquals(check.errorMessage, e.getMessage());
+  }
+
+  private static Path write(Path file, String content) throws IOException {
+    return Files.write(file, content.getBytes(UTF_8));
+  }
+}
@@ -19,8 +19,13 @@ import org.apache.maven.monitor.logging.DefaultLog;
 import org.apache.maven.plugin.testing.stubs.MavenProjectStub;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
 import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
 
 class LicenseSetTest {
 
@@ -100,5 +105,49 @@ class LicenseSetTest {
     Assertions.assertTrue(log.contains("Header OK in: " + fileFromDefaultBaseDirSet));
   }
 
+  @Test
+  void licenseSetsSharingTheirBaseDirectory(@TempDir Path tempFolder) throws Exception {
+    final Path basedir = Files.createDirectories(tempFolder.resolve("src"));
+    final Path firstLicense = Files.write(tempFolder.resolve("first-license.txt"), "First License".getBytes(UTF_8));
+    Files.write(basedir.resolve("a.java"), "class A {}\n".getBytes(UTF_8));
+    Files.write(basedir.resolve("b.txt"), "some text\n".getBytes(UTF_8));
+
+    final LicenseFormatMojo format = new LicenseFormatMojo();
+    format.licenseSets = newOverlappingLicenseSets(basedir, firstLicense);
+    format.project = new MavenProjectStub();
+    format.execute();
+
+    // each file is processed by the license sets selecting it, in their order
+    final String a = new String(Files.readAllBytes(basedir.resolve("a.java")), UTF_8);
+    final String b = new String(Files.readAllBytes(basedir.resolve("b.txt")), UTF_8);
+    Assertions.assertTrue(a.contains("First License"), a);
+    Assertions.assertFalse(a.contains("Second License"), a);
+    Assertions.assertTrue(b.contains("Second License"), b);
+    Assertions.assertFalse(b.contains("First License"), b);
+
+    final LicenseCheckMojo check = new LicenseCheckMojo();
+    check.licenseSets = newOverlappingLicenseSets(basedir, firstLicense);
+    check.project = new MavenProjectStub();
+    final MockedLog logger = new MockedLog();
+    check.setLog(new DefaultLog(logger));
+    check.execute();
+    final String log = logger.getContent();
+    Assertions.assertTrue(log.contains("Header OK in: " + basedir.resolve("a.java").toFile().getCanonicalPath().replace('\\', '/')), log);
+    Assertions.assertTrue(log.contains("Header OK in: " + basedir.resolve("b.txt").toFile().getCanonicalPath().replace('\\', '/')), log);
+  }
+
+  private static LicenseSet[] newOverlappingLicenseSets(Path basedir, Path firstLicense) {
+    final LicenseSet javaFiles = new LicenseSet();
+    javaFiles.basedir = basedir.toFile();
+    javaFiles.inlineHeader = "First License";
+    javaFiles.includes = new String[]{"**/*.java"};
+
+    final LicenseSet allFiles = new LicenseSet();
+    allFiles.basedir = basedir.toFile();
+    allFiles.inlineHeader = "Second License";
+    allFiles.validHeaders = new String[]{firstLicense.toString()};
+
+    return new LicenseSet[]{javaFiles, allFiles};
+  }
 
 }
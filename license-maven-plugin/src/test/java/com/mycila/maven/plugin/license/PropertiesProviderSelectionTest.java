@@ -0,0 +1,102 @@
+/*
+ * Copyright (C) 2008-2025 Mycila (mathieu.carbou@gmail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.mycila.maven.plugin.license;
+
+import org.apache.maven.plugin.MojoFailureException;
+import org.apache.maven.plugin.testing.stubs.MavenProjectStub;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.Map;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+class PropertiesProviderSelectionTest {
+
+  @TempDir
+  Path tempFolder;
+
+  @BeforeEach
+  void resetCounters() {
+    CountingPropertiesProvider.INITIALIZED.set(0);
+    CountingPropertiesProvider.CHECKED.set(0);
+    CountingPropertiesProvider.ADJUSTED.set(0);
+  }
+
+  @Test
+  void unusedProviderIsSkipped() throws Exception {
+    check("Copyright ${owner}", Collections.singletonMap("owner", "Me"));
+    Assertions.assertEquals(0, CountingPropertiesProvider.INITIALIZED.get());
+    Assertions.assertEquals(0, CountingPropertiesProvider.ADJUSTED.get());
+    Assertions.assertEquals(1, CountingPropertiesProvider.CHECKED.get());
+  }
+
+  @Test
+  void unusedProviderStillFailsOnShallowEnvironment() {
+    MojoFailureException e = Assertions.assertThrows(MojoFailureException.class,
+        () -> check("Copyright Me", Collections.emptyMap(), true));
+    Assertions.assertTrue(e.getMessage().startsWith("Shallow git repository detected (test stub)"), e.getMessage());
+    Assertions.assertEquals(0, CountingPropertiesProvider.INITIALIZED.get());
+  }
+
+  @Test
+  void staticHeaderSkipsProviders() throws Exception {
+    check("Copyright Me", Collections.emptyMap());
+    Assertions.assertEquals(0, CountingPropertiesProvider.INITIALIZED.get());
+  }
+
+  @Test
+  void referencedProviderIsUsed() throws Exception {
+    check("Copyright ${counting.value}", Collections.emptyMap());
+    Assertions.assertEquals(1, CountingPropertiesProvider.INITIALIZED.get());
+    Assertions.assertEquals(2, CountingPropertiesProvider.ADJUSTED.get());
+    Assertions.assertEquals(0, CountingPropertiesProvider.CHECKED.get());
+  }
+
+  @Test
+  void providerReferencedThroughPropertyIsUsed() throws Exception {
+    check("Copyright ${owner}", Collections.singletonMap("owner", "${counting.value}"));
+    Assertions.assertEquals(1, CountingPropertiesProvider.INITIALIZED.get());
+  }
+
+  @Test
+  void providerReferencedThroughDefaultValueIsUsed() throws Exception {
+    check("Copyright ${owner:${counting.value}}", Collections.emptyMap());
+    Assertions.assertEquals(1, CountingPropertiesProvider.INITIALIZED.get());
+  }
+
+  private void check(String header, Map<String, String> properties) throws Exception {
+    check(header, properties, false);
+  }
+
+  private void check(String header, Map<String, String> properties, boolean failOnShallow) throws Exception {
+    Files.write(tempFolder.resolve("a.txt"), "no header\n".getBytes(UTF_8));
+    Files.write(tempFolder.resolve("b.txt"), "no header either\n".getBytes(UTF_8));
+    LicenseCheckMojo check = new LicenseCheckMojo();
+    check.defaultBasedir = tempFolder.toFile();
+    check.legacyConfigInlineHeader = header;
+    check.defaultProperties = properties;
+    check.project = new MavenProjectStub();
+    check.failIfMissing = false;
+    check.failOnShallow = failOnShallow;
+    check.execute();
+  }
+}
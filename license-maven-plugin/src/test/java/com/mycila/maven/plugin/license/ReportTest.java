@@ -23,9 +23,14 @@ import org.apache.maven.plugin.testing.stubs.MavenProjectStub;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
 import java.io.File;
 import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
 import java.time.Clock;
 import java.time.Instant;
 import java.time.ZoneId;
@@ -234,6 +239,29 @@ class ReportTest {
     assertThat(processed).isEqualTo(expected);
   }
 
+  @Test
+  void test_format_unchanged_file(@TempDir Path tempDir) throws Exception {
+    File tmp = tempDir.toFile();
+    LicenseFormatMojo format = new LicenseFormatMojo();
+    format.project = mavenProjectStub;
+    format.defaultBasedir = tmp;
+    // the header cannot be written in this encoding: it never passes the strict check, but is rewritten the same way
+    format.legacyConfigInlineHeader = "Copyright é";
+    format.encoding = "US-ASCII";
+    format.legacyConfigIncludes = new String[]{"*.java"};
+    format.reportLocation = new File(tmp, "report/license-plugin-report.xml");
+    Path file = Files.write(new File(tmp, "A.java").toPath(), "class A {}\n".getBytes(StandardCharsets.UTF_8));
+    format.execute();
+    Assertions.assertEquals("/*\n * Copyright ?\n */\nclass A {}\n", new String(Files.readAllBytes(file), StandardCharsets.US_ASCII));
+    FileTime modified = FileTime.from(Instant.parse("2020-01-01T00:00:00Z"));
+    Files.setLastModifiedTime(file, modified);
+    format.execute();
+
+    Assertions.assertEquals(modified, Files.getLastModifiedTime(file));
+    assertThat(FileUtils.read(format.reportLocation, StandardCharsets.UTF_8))
+        .contains("A.java\" reason=\"unchanged\" result=\"NOOP\"/>");
+  }
+
   private static String unixify(String s) {
     return s.replace("\r", "").replace("\\", "/").replace("//", "/");
   }
@@ -19,16 +19,28 @@ import com.mycila.maven.plugin.license.document.Document;
 
 import java.util.Collections;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * Test-only {@link PropertiesProvider} that simulates shallow-repository detection.
  * Activated by setting {@code mojo.skipOnShallow} or {@code mojo.failOnShallow}; a no-op
- * otherwise, so it does not interfere with unrelated tests.
+ * otherwise, so it does not interfere with unrelated tests. Like the git providers, it checks the repository whether
+ * or not its property is used.
  */
 public class ShallowTestPropertiesProvider implements PropertiesProvider {
 
+  @Override
+  public Set<String> getPropertyKeys() {
+    return Set.of("shallow.test.value");
+  }
+
   @Override
   public void init(AbstractLicenseMojo mojo, Map<String, String> currentProperties) {
+    checkEnvironment(mojo, currentProperties);
+  }
+
+  @Override
+  public void checkEnvironment(AbstractLicenseMojo mojo, Map<String, String> currentProperties) {
     if (mojo.skipOnShallow) {
       throw new ShallowRepositorySkipException("Shallow git repository detected (test stub). Skipping plugin execution.");
     }
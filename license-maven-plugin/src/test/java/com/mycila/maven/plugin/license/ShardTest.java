@@ -0,0 +1,173 @@
+/**
+ * Copyright (C) 2008 Mycila (mathieu.carbou@gmail.com)
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.mycila.maven.plugin.license;
+
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.testing.stubs.ArtifactStub;
+import org.apache.maven.plugin.testing.stubs.MavenProjectStub;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Arrays.asList;
+
+class ShardTest {
+
+  @TempDir
+  Path tempFolder;
+
+  @Test
+  void parse() {
+    Assertions.assertEquals("2/3", Shard.parse("2/3").toString());
+    Assertions.assertEquals("1/1", Shard.parse(" 1 / 1 ").toString());
+    for (String invalid : new String[]{"0/3", "4/3", "1/0", "3", "a/b", "/3", "1/"}) {
+      Assertions.assertThrows(IllegalArgumentException.class, () -> Shard.parse(invalid), invalid);
+    }
+  }
+
+  @Test
+  void eachFileBelongsToOneShard() {
+    final Shard[] shards = {Shard.parse("1/3"), Shard.parse("2/3"), Shard.parse("3/3")};
+    final int[] counts = new int[shards.length];
+    for (int i = 0; i < 300; i++) {
+      final String file = "src" + File.separator + "File" + i + ".java";
+      int owners = 0;
+      for (int s = 0; s < shards.length; s++) {
+        if (shards[s].contains(file)) {
+          owners++;
+          counts[s]++;
+        }
+      }
+      Assertions.assertEquals(1, owners, file);
+      Assertions.assertEquals(shards[1].contains(file), shards[1].contains(file.replace(File.separatorChar, '/')));
+    }
+    for (int count : counts) {
+      Assertions.assertTrue(count > 50, "unbalanced shards: " + count);
+    }
+  }
+
+  @Test
+  void mergedShardReportsMatchTheReportOfTheWholeCheck() throws Exception {
+    final Path basedir = Files.createDirectories(tempFolder.resolve("src"));
+    for (int i = 0; i < 7; i++) {
+      Files.write(basedir.resolve("file" + i + ".java"), "class A {}\n".getBytes(UTF_8));
+    }
+    for (int i = 0; i < 20; i++) {
+      Files.write(basedir.resolve("file" + i + ".txt"), "content\n".getBytes(UTF_8));
+    }
+    final MavenProjectStub project = newProject();
+
+    final File whole = tempFolder.resolve("whole.xml").toFile();
+    final LicenseFormatMojo format = new LicenseFormatMojo();
+    format.project = project;
+    format.defaultBasedir = basedir.toFile();
+    format.legacyConfigInlineHeader = "My License";
+    format.legacyConfigIncludes = new String[]{"*.java"};
+    format.reportSkipped = true;
+    format.execute();
+    runCheck(project, basedir, null, whole);
+    final File[] shards = new File[3];
+    for (int i = 0; i < shards.length; i++) {
+      shards[i] = tempFolder.resolve("shard-" + (i + 1) + (i == 1 ? ".json" : ".xml")).toFile();
+      runCheck(project, basedir, (i + 1) + "/" + shards.length, shards[i]);
+      Assertions.assertTrue(Report.readFrom(shards[i], project).count(Report.Result.MISSING) < 20);
+    }
+
+    final LicenseMergeReportsMojo merge = new LicenseMergeReportsMojo();
+    merge.project = project;
+    merge.reports = shards;
+    merge.reportLocation = tempFolder.resolve("merged.xml").toFile();
+    Assertions.assertThrows(MojoExecutionException.class, merge::execute);
+    Assertions.assertEquals(new String(Files.readAllBytes(whole.toPath()), UTF_8),
+        new String(Files.readAllBytes(merge.reportLocation.toPath()), UTF_8));
+
+    final Report merged = Report.readFrom(merge.reportLocation, project);
+    Assertions.assertEquals(7, merged.count(Report.Result.PRESENT));
+    Assertions.assertEquals(20, merged.count(Report.Result.MISSING));
+    Assertions.assertTrue(merged.getSummary().contains("27 file(s) checked"), merged.getSummary());
+
+    merge.failIfMissing = false;
+    merge.reportLocation = tempFolder.resolve("merged.json").toFile();
+    merge.execute();
+    Assertions.assertEquals(27, Report.readFrom(merge.reportLocation, project).count(Report.Result.MISSING)
+        + Report.readFrom(merge.reportLocation, project).count(Report.Result.PRESENT));
+  }
+
+  @Test
+  void mergedReportWithUnknownFilesFailsLikeTheCheck() throws Exception {
+    final Path basedir = Files.createDirectories(tempFolder.resolve("src"));
+    Files.write(basedir.resolve("file.unknown-extension"), "content\n".getBytes(UTF_8));
+    final MavenProjectStub project = newProject();
+    final File[] shards = new File[2];
+    for (int i = 0; i < shards.length; i++) {
+      shards[i] = tempFolder.resolve("shard-" + (i + 1) + ".xml").toFile();
+      runCheck(project, basedir, (i + 1) + "/" + shards.length, shards[i]);
+    }
+
+    final LicenseMergeReportsMojo merge = new LicenseMergeReportsMojo();
+    merge.project = project;
+    merge.reports = shards;
+    merge.reportLocation = tempFolder.resolve("merged.xml").toFile();
+    merge.execute();
+    Assertions.assertEquals(1, Report.readFrom(merge.reportLocation, project).count(Report.Result.UNKNOWN));
+
+    merge.failIfUnknown = true;
+    Assertions.assertThrows(MojoExecutionException.class, merge::execute);
+  }
+
+  @Test
+  void reportsOfDifferentGoalsAreNotMerged() {
+    final MavenProjectStub project = newProject();
+    final Clock clock = Clock.systemUTC();
+    Assertions.assertThrows(IllegalArgumentException.class, () -> Report.merge(null, project, asList(
+        new Report(null, Report.Action.CHECK, project, clock, false),
+        new Report(null, Report.Action.FORMAT, project, clock, false))));
+  }
+
+  private static MavenProjectStub newProject() {
+    final MavenProjectStub project = new MavenProjectStub();
+    final ArtifactStub artifact = new ArtifactStub();
+    artifact.setGroupId("com.mycila");
+    artifact.setArtifactId("license-maven-plugin");
+    artifact.setVersion("1.0");
+    project.setArtifact(artifact);
+    return project;
+  }
+
+  private static void runCheck(MavenProjectStub project, Path basedir, String shard, File reportLocation) {
+    final LicenseCheckMojo check = new LicenseCheckMojo();
+    check.clock = Clock.fixed(Instant.ofEpochMilli(1631615047644L), ZoneOffset.UTC);
+    check.project = project;
+    check.defaultBasedir = basedir.toFile();
+    check.legacyConfigInlineHeader = "My License";
+    check.shard = shard;
+    check.reportLocation = reportLocation;
+    check.failIfMissing = false;
+    try {
+      check.execute();
+    } catch (Exception e) {
+      throw new AssertionError(e);
+    }
+  }
+}
@@ -0,0 +1,229 @@
+/*
+ * Copyright (C) 2008-2025 Mycila (mathieu.carbou@gmail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.mycila.maven.plugin.license;
+
+import org.apache.maven.execution.DefaultMavenExecutionRequest;
+import org.apache.maven.execution.DefaultMavenExecutionResult;
+import org.apache.maven.execution.AbstractExecutionListener;
+import org.apache.maven.execution.ExecutionEvent;
+import org.apache.maven.execution.MavenSession;
+import org.apache.maven.plugin.testing.stubs.MavenProjectStub;
+import org.eclipse.aether.DefaultRepositorySystemSession;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+class SharedExecutorTest {
+
+  @TempDir
+  Path tempFolder;
+
+  @Test
+  void lanesAreServedInTurn() throws Exception {
+    SharedExecutor executor = new SharedExecutor();
+    ExecutorService a = executor.open(1);
+    ExecutorService b = executor.open(1);
+    CountDownLatch started = new CountDownLatch(1);
+    CountDownLatch blocked = new CountDownLatch(1);
+    a.execute(() -> {
+      started.countDown();
+      await(blocked);
+    });
+    started.await();
+    List<String> order = Collections.synchronizedList(new ArrayList<>());
+    for (int i = 1; i <= 5; i++) {
+      String name = "a" + i;
+      a.execute(() -> order.add(name));
+    }
+    for (int i = 1; i <= 3; i++) {
+      String name = "b" + i;
+      b.execute(() -> order.add(name));
+    }
+    blocked.countDown();
+    a.shutdown();
+    b.shutdown();
+    Assertions.assertTrue(a.awaitTermination(10, TimeUnit.SECONDS));
+    Assertions.assertTrue(b.awaitTermination(10, TimeUnit.SECONDS));
+    Assertions.assertEquals(Arrays.asList("a1", "b1", "a2", "b2", "a3", "b3", "a4", "a5"), order);
+    executor.shutdown();
+    waitForWorkersToStop();
+  }
+
+  @Test
+  void poolGrowsToTheLargestNumberOfThreadsAsked() throws Exception {
+    SharedExecutor executor = new SharedExecutor();
+    ExecutorService a = executor.open(2);
+    Assertions.assertEquals(2, executor.getThreads());
+    ExecutorService b = executor.open(3);
+    ExecutorService c = executor.open(1);
+    Assertions.assertEquals(3, executor.getThreads());
+    Assertions.assertEquals(3, workerCount());
+    AtomicInteger running = new AtomicInteger();
+    AtomicInteger maxRunning = new AtomicInteger();
+    List<Future<?>> futures = new ArrayList<>();
+    for (int i = 0; i < 60; i++) {
+      futures.add((i % 3 == 0 ? a : i % 3 == 1 ? b : c).submit(() -> {
+        maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+        Thread.sleep(1);
+        running.decrementAndGet();
+        return null;
+      }));
+    }
+    for (Future<?> future : futures) {
+      future.get(10, TimeUnit.SECONDS);
+    }
+    Assertions.assertTrue(maxRunning.get() <= 3, "at most 3 tasks at a time, got " + maxRunning.get());
+    a.shutdown();
+    b.shutdown();
+    c.shutdown();
+    executor.shutdown();
+    waitForWorkersToStop();
+  }
+
+  @Test
+  void workersAreKeptUntilTheSessionEnds() throws Exception {
+    SharedExecutor executor = new SharedExecutor();
+    ExecutorService a = executor.open(2);
+    Assertions.assertEquals("a", a.submit(() -> "a").get(10, TimeUnit.SECONDS));
+    a.shutdown();
+    Assertions.assertTrue(a.awaitTermination(10, TimeUnit.SECONDS));
+    Set<Thread> workers = workers();
+    Assertions.assertEquals(2, workers.size());
+
+    // the next lane reuses the idle workers
+    ExecutorService b = executor.open(2);
+    CountDownLatch started = new CountDownLatch(2);
+    CountDownLatch blocked = new CountDownLatch(1);
+    for (int i = 0; i < 2; i++) {
+      b.execute(() -> {
+        started.countDown();
+        await(blocked);
+      });
+    }
+    b.execute(() -> Assertions.fail("dropped task executed"));
+    Assertions.assertTrue(started.await(10, TimeUnit.SECONDS));
+    Assertions.assertEquals(workers, workers());
+    Assertions.assertFalse(b.isTerminated());
+    Assertions.assertEquals(1, b.shutdownNow().size());
+
+    // the running tasks are done before the workers stop
+    executor.shutdown();
+    Assertions.assertEquals(2, workerCount());
+    blocked.countDown();
+    Assertions.assertTrue(b.awaitTermination(10, TimeUnit.SECONDS));
+    waitForWorkersToStop();
+    Assertions.assertThrows(RejectedExecutionException.class, () -> executor.open(1));
+  }
+
+  @Test
+  void executorIsSharedInTheSessionAndShutDownAtItsEnd() throws Exception {
+    Assertions.assertNull(SharedExecutor.of(null));
+    MavenSession session = new MavenSession(null, new DefaultRepositorySystemSession(),
+        new DefaultMavenExecutionRequest(), new DefaultMavenExecutionResult());
+    List<String> events = new ArrayList<>();
+    session.getRequest().setExecutionListener(new AbstractExecutionListener() {
+      @Override
+      public void mojoStarted(ExecutionEvent event) {
+        events.add("mojoStarted");
+      }
+
+      @Override
+      public void sessionEnded(ExecutionEvent event) {
+        events.add("sessionEnded");
+      }
+    });
+    SharedExecutor executor = SharedExecutor.of(session);
+    Assertions.assertNotNull(executor);
+    Assertions.assertSame(executor, SharedExecutor.of(session));
+
+    Path basedir = tempFolder.resolve("src");
+    for (int i = 0; i < 50; i++) {
+      Path file = basedir.resolve("dir" + (i % 3) + "/file" + i + ".txt");
+      Files.createDirectories(file.getParent());
+      Files.write(file, "content\n".getBytes(UTF_8));
+    }
+    LicenseFormatMojo format = new LicenseFormatMojo();
+    format.defaultBasedir = basedir.toFile();
+    format.legacyConfigInlineHeader = "My License";
+    format.project = new MavenProjectStub();
+    format.session = session;
+    format.sharedPool = true;
+    format.nThreads = 2;
+    format.execute();
+    Assertions.assertEquals(2, executor.getThreads());
+    for (int i = 0; i < 50; i++) {
+      Path file = basedir.resolve("dir" + (i % 3) + "/file" + i + ".txt");
+      Assertions.assertTrue(new String(Files.readAllBytes(file), UTF_8).contains("My License"), file.toString());
+    }
+
+    // the workers are kept for the next execution of the session, which can ask for more
+    Set<Thread> workers = workers();
+    Assertions.assertEquals(2, workers.size());
+    format.nThreads = 4;
+    format.execute();
+    Assertions.assertEquals(4, executor.getThreads());
+    Assertions.assertTrue(workers().containsAll(workers));
+
+    // the events reach the replaced listener, and the end of the session stops the workers
+    session.getRequest().getExecutionListener().mojoStarted(null);
+    session.getRequest().getExecutionListener().sessionEnded(null);
+    Assertions.assertEquals(Arrays.asList("mojoStarted", "sessionEnded"), events);
+    waitForWorkersToStop();
+  }
+
+  private static Set<Thread> workers() {
+    return Thread.getAllStackTraces().keySet().stream()
+        .filter(t -> t.getName().startsWith("license-maven-plugin-"))
+        .collect(Collectors.toSet());
+  }
+
+  private static int workerCount() {
+    return workers().size();
+  }
+
+  private static void waitForWorkersToStop() throws InterruptedException {
+    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+    while (workerCount() > 0) {
+      Assertions.assertTrue(System.nanoTime() < deadline, "workers still running");
+      Thread.sleep(10);
+    }
+  }
+
+  private static void await(CountDownLatch latch) {
+    try {
+      latch.await();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
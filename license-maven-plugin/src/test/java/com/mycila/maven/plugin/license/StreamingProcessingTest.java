@@ -0,0 +1,187 @@
+/**
+ * Copyright (C) 2008 Mycila (mathieu.carbou@gmail.com)
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.mycila.maven.plugin.license;
+
+import com.mycila.maven.plugin.license.document.Document;
+import com.mycila.maven.plugin.license.header.Header;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.testing.stubs.MavenProjectStub;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Stream;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+class StreamingProcessingTest {
+
+  @TempDir
+  Path tempFolder;
+
+  @Test
+  void allFilesAreProcessedWhenTheScanIsAheadOfTheChecks() throws Exception {
+    for (boolean parallelScan : new boolean[]{false, true}) {
+      Path basedir = tempFolder.resolve("parallelScan-" + parallelScan);
+      // more files than can wait in the queue of a single thread
+      for (int i = 0; i < 500; i++) {
+        Path file = basedir.resolve("dir" + (i % 7) + "/file" + i + ".txt");
+        Files.createDirectories(file.getParent());
+        Files.write(file, ("content " + i + "\n").getBytes(UTF_8));
+      }
+      LicenseFormatMojo format = new LicenseFormatMojo();
+      format.defaultBasedir = basedir.toFile();
+      format.legacyConfigInlineHeader = "My License";
+      format.project = new MavenProjectStub();
+      format.nThreads = 1;
+      format.parallelScan = parallelScan;
+      format.execute();
+
+      try (Stream<Path> files = Files.walk(basedir)) {
+        Assertions.assertEquals(500, files.filter(Files::isRegularFile).filter(StreamingProcessingTest::hasHeader).count());
+      }
+    }
+  }
+
+  @Test
+  void processingFailureStopsTheScan() throws Exception {
+    for (int i = 0; i < 500; i++) {
+      Files.write(tempFolder.resolve("file" + i + ".txt"), "content\n".getBytes(UTF_8));
+    }
+    AtomicInteger processed = new AtomicInteger();
+    IllegalStateException error = Assertions.assertThrows(IllegalStateException.class, () ->
+      newCheck().execute(new MissingHeaderCallback() {
+        @Override
+        public void onHeaderNotFound(Document document, Header header) {
+          processed.incrementAndGet();
+          throw new IllegalStateException("cannot process " + document.getFile().getName());
+        }
+      }));
+    Assertions.assertTrue(error.getMessage().startsWith("cannot process file"), error.getMessage());
+    Assertions.assertTrue(processed.get() < 500, "processed " + processed.get());
+  }
+
+  @Test
+  void interruptedScanFailsWithoutSavingTheIncrementalState() throws Exception {
+    for (int i = 0; i < 500; i++) {
+      Files.write(tempFolder.resolve("file" + i + ".txt"), "content\n".getBytes(UTF_8));
+    }
+    Path stateDir = tempFolder.resolve("state");
+    LicenseCheckMojo check = newCheck();
+    check.incremental = true;
+    check.incrementalStateDirectory = stateDir.toFile();
+    check.report = new Report(null, Report.Action.CHECK, check.project, Clock.systemUTC(), true);
+    CountDownLatch processing = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    AtomicReference<Exception> error = new AtomicReference<>();
+    Thread thread = new Thread(() -> {
+      try {
+        check.execute(new MissingHeaderCallback() {
+          @Override
+          public void onHeaderNotFound(Document document, Header header) {
+            processing.countDown();
+            try {
+              release.await();
+            } catch (InterruptedException e) {
+              Thread.currentThread().interrupt();
+            }
+          }
+        });
+      } catch (Exception e) {
+        error.set(e);
+      }
+    });
+    thread.start();
+    // the scan fills the queue of files to process, then waits for the blocked check
+    processing.await();
+    thread.interrupt();
+    release.countDown();
+    thread.join();
+
+    Assertions.assertInstanceOf(MojoExecutionException.class, error.get());
+    Assertions.assertTrue(error.get().getMessage().startsWith("Interrupted"), error.get().getMessage());
+    Assertions.assertFalse(Files.exists(stateDir.resolve("license-set-0.state")));
+  }
+
+  @Test
+  void virtualThreadsProcessAtMostNThreadsFilesAtATime() throws Exception {
+    for (int i = 0; i < 100; i++) {
+      Files.write(tempFolder.resolve("file" + i + ".txt"), "content\n".getBytes(UTF_8));
+    }
+    boolean supported = Runtime.version().feature() >= 21;
+    AtomicInteger running = new AtomicInteger();
+    AtomicInteger maxRunning = new AtomicInteger();
+    AtomicInteger platformThreads = new AtomicInteger();
+    LicenseCheckMojo check = newCheck();
+    check.nThreads = 3;
+    check.virtualThreads = true;
+    check.report = new Report(null, Report.Action.CHECK, check.project, Clock.systemUTC(), true);
+    check.execute(new MissingHeaderCallback() {
+      @Override
+      public void onHeaderNotFound(Document document, Header header) {
+        maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+        if (!Thread.currentThread().toString().startsWith("VirtualThread")) {
+          platformThreads.incrementAndGet();
+        }
+        try {
+          Thread.sleep(1);
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+        running.decrementAndGet();
+      }
+    });
+    Assertions.assertTrue(maxRunning.get() <= 3, "max running " + maxRunning.get());
+    Assertions.assertEquals(supported ? 0 : 100, platformThreads.get());
+  }
+
+  private static boolean hasHeader(Path file) {
+    try {
+      return new String(Files.readAllBytes(file), UTF_8).contains("My License");
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  private LicenseCheckMojo newCheck() {
+    LicenseCheckMojo check = new LicenseCheckMojo();
+    check.defaultBasedir = tempFolder.toFile();
+    check.legacyConfigInlineHeader = "My License";
+    check.project = new MavenProjectStub();
+    check.nThreads = 1;
+    return check;
+  }
+
+  private abstract static class MissingHeaderCallback implements Callback {
+    @Override
+    public void onExistingHeader(Document document, Header header) {
+      Assertions.fail("unexpected header in " + document);
+    }
+
+    @Override
+    public void onUnknownFile(Document document, Header header) {
+      Assertions.fail("unknown file " + document);
+    }
+  }
+}
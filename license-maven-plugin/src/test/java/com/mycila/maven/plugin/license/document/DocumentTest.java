@@ -16,7 +16,9 @@
 package com.mycila.maven.plugin.license.document;
 
 import com.mycila.maven.plugin.license.header.Header;
+import com.mycila.maven.plugin.license.header.HeaderType;
 import com.mycila.maven.plugin.license.header.HeaderSource.UrlHeaderSource;
+import com.mycila.maven.plugin.license.util.AsciiFirstLines;
 import com.mycila.maven.plugin.license.util.FileUtils;
 
 import java.io.File;
@@ -24,6 +26,8 @@ import java.io.IOException;
 import java.net.URISyntaxException;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
@@ -33,6 +37,7 @@ import java.util.stream.Stream;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.MethodSource;
 
@@ -188,4 +193,47 @@ class DocumentTest {
         "</web-app>\r\n");
   }
 
+  @Test
+  void test_content_shared_with_the_next_document(@TempDir Path tempFolder) throws Exception {
+    Path file = Files.write(tempFolder.resolve("doc.txt"), "first line\nsecond line\n".getBytes(StandardCharsets.UTF_8));
+    Map<String, String> mapping = new HashMap<>();
+    mapping.put("txt", "text");
+    DocumentFactory first = new DocumentFactory(tempFolder.toFile(), mapping, HeaderType.defaultDefinitions(),
+        StandardCharsets.UTF_8, new String[]{"copyright"}, loader);
+    DocumentFactory second = new DocumentFactory(tempFolder.toFile(), mapping, HeaderType.defaultDefinitions(),
+        StandardCharsets.UTF_8, new String[]{"copyright"}, loader);
+
+    Document doc = first.createDocuments("doc.txt");
+    Assertions.assertEquals("first line\n", doc.getFirstLines(1));
+    Files.write(file, "changed\n".getBytes(StandardCharsets.UTF_8));
+    Assertions.assertEquals("first line\n", second.createDocuments("doc.txt", doc).getFirstLines(1));
+
+    // once parsed, the content may be modified: it is read again
+    doc.parseHeader();
+    Assertions.assertEquals("changed\n", second.createDocuments("doc.txt", doc).getFirstLines(1));
+  }
+
+  @Test
+  void test_first_lines_read_once_for_the_next_documents(@TempDir Path tempFolder) throws Exception {
+    Files.write(tempFolder.resolve("doc.txt"), "first line\nsecond line\nthird line\n".getBytes(StandardCharsets.UTF_8));
+    Map<String, String> mapping = new HashMap<>();
+    mapping.put("txt", "text");
+    DocumentFactory first = new DocumentFactory(tempFolder.toFile(), mapping, HeaderType.defaultDefinitions(),
+        StandardCharsets.UTF_8, new String[]{"copyright"}, loader);
+    DocumentFactory second = new DocumentFactory(tempFolder.toFile(), mapping, HeaderType.defaultDefinitions(),
+        StandardCharsets.UTF_8, new String[]{"copyright"}, loader);
+    first.setFirstLineCount(3);
+    second.setFirstLineCount(3);
+
+    Document doc = first.createDocuments("doc.txt");
+    AsciiFirstLines lines = doc.getAsciiFirstLines(1);
+    Assertions.assertTrue(lines.contains("third line\n".getBytes(StandardCharsets.US_ASCII), 3));
+    Assertions.assertSame(lines, doc.getAsciiFirstLines(2));
+    Assertions.assertSame(lines, second.createDocuments("doc.txt", doc).getAsciiFirstLines(3));
+
+    // once parsed, the file may be rewritten: it is read again
+    doc.parseHeader();
+    Assertions.assertNotSame(lines, second.createDocuments("doc.txt", doc).getAsciiFirstLines(3));
+  }
+
 }
@@ -0,0 +1,104 @@
+/**
+ * Copyright (C) 2008 Mycila (mathieu.carbou@gmail.com)
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.mycila.maven.plugin.license.document;
+
+import com.mycila.maven.plugin.license.header.HeaderType;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+class DocumentTypeClassifierTest {
+
+  @Test
+  void first_matching_key_wins() {
+    Map<String, String> mapping = new LinkedHashMap<>();
+    mapping.put("", "UNKNOWN");
+    mapping.put("tar.gz", "archive");
+    mapping.put("gz", "binary");
+    mapping.put("Makefile", "script_style");
+    mapping.put("makefile.in", "text");
+    DocumentTypeClassifier classifier = new DocumentTypeClassifier(mapping);
+
+    Assertions.assertEquals("archive", classifier.getHeaderType("a/b.TAR.GZ"));
+    Assertions.assertEquals("binary", classifier.getHeaderType("b.gz"));
+    Assertions.assertEquals("script_style", classifier.getHeaderType("dir/makefile"));
+    Assertions.assertEquals("script_style", classifier.getHeaderType("dir/project.makefile"));
+    Assertions.assertEquals("text", classifier.getHeaderType("Makefile.in"));
+    Assertions.assertEquals("UNKNOWN", classifier.getHeaderType("dir/gz/file"));
+    Assertions.assertEquals("unknown", classifier.getHeaderType("file."));
+  }
+
+  @Test
+  void same_result_as_linear_scan_of_default_mapping() {
+    Map<String, String> mapping = new LinkedHashMap<>();
+    mapping.put(DocumentType.UNKNOWN.getExtension(), DocumentType.UNKNOWN.getDefaultHeaderTypeName());
+    mapping.put("java", "script_style");
+    mapping.put("txt.in", "xml_style");
+    for (Map.Entry<String, String> entry : DocumentType.defaultMapping().entrySet()) {
+      mapping.putIfAbsent(entry.getKey(), entry.getValue());
+    }
+    DocumentTypeClassifier classifier = new DocumentTypeClassifier(mapping);
+
+    List<String> names = Arrays.asList("", "a", ".", "a.", "A.JAVA", "b.txt.in", "c.in", "Dockerfile", "x.dockerfile",
+        "dockerfile.bak", ".editorconfig", "a..editorconfig", "a.editorconfig", "spring.factories", "META-INF/spring.factories",
+        "x.gsp", "x.GSP", "x.xml.txt", "x.txt.xml", "dir.java/file", "dir/.java", "java", "noext");
+    for (String name : names) {
+      Assertions.assertEquals(linearScan(mapping, name), classifier.getHeaderType(name), name);
+    }
+    for (String extension : DocumentType.defaultMapping().keySet()) {
+      for (String name : Arrays.asList("f." + extension, "d/F." + extension.toUpperCase(), extension, "x" + extension)) {
+        Assertions.assertEquals(linearScan(mapping, name), classifier.getHeaderType(name), name);
+      }
+    }
+  }
+
+  @Test
+  void document_factory_classifies_documents() {
+    Map<String, String> mapping = new LinkedHashMap<>();
+    mapping.put(DocumentType.UNKNOWN.getExtension(), DocumentType.UNKNOWN.getDefaultHeaderTypeName());
+    mapping.putAll(DocumentType.defaultMapping());
+    DocumentFactory factory = new DocumentFactory(Path.of(".").toFile(), mapping,
+        HeaderType.defaultDefinitions(), StandardCharsets.UTF_8,
+        new String[]{"copyright"}, d -> Map.of());
+
+    Assertions.assertTrue(factory.createDocuments("file.unknownextension").isNotSupported());
+    Assertions.assertFalse(factory.createDocuments("File.java").isNotSupported());
+    Assertions.assertSame(HeaderType.defaultDefinitions().get("slashstar_style"),
+        factory.createDocuments("File.java").getHeaderDefinition());
+  }
+
+  /**
+   * The lookup done before the mapping was compiled.
+   */
+  private static String linearScan(Map<String, String> mapping, String file) {
+    String headerType = mapping.get("");
+    String lowerFileName = file.isEmpty() ? "" : Path.of(file).getFileName().toString().toLowerCase();
+    for (Map.Entry<String, String> entry : mapping.entrySet()) {
+      String lowerKey = entry.getKey().toLowerCase();
+      if (lowerFileName.endsWith("." + lowerKey) || lowerFileName.equals(lowerKey)) {
+        headerType = entry.getValue().toLowerCase();
+        break;
+      }
+    }
+    return headerType;
+  }
+}
@@ -19,12 +19,17 @@ import com.mycila.maven.plugin.license.util.FileContent;
 
 import java.io.File;
 import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Locale;
 import java.util.stream.Stream;
 
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.MethodSource;
 
@@ -100,4 +105,72 @@ class HeaderParserTest {
     Assertions.assertEquals(45, parser.getBeginPosition());
     Assertions.assertEquals(864, parser.getEndPosition());
   }
+
+  @Test
+  void test_skip_line_lookahead(@TempDir Path tempFolder) throws Exception {
+    HeaderDefinition bounded = new HeaderDefinition("bounded_xml", "<!--EOL", "    ", "EOL-->", "", "^<\\?xml.*>$",
+        "(\\s|\\t)*<!--.*$", ".*-->(\\s|\\t)*$", true, true, false);
+    bounded.setPropertyFromString("skipLineLookahead", "2");
+    Assertions.assertEquals(2, bounded.getSkipLineLookahead());
+
+    // the line to skip is within the lookahead
+    File prolog = Files.write(tempFolder.resolve("prolog.xml"),
+        "\n<?xml version=\"1.0\"?>\n<root/>\n".getBytes(StandardCharsets.UTF_8)).toFile();
+    Assertions.assertEquals(23, new HeaderParser(new FileContent(prolog, StandardCharsets.UTF_8), bounded,
+        new String[]{"copyright"}).getBeginPosition());
+
+    // the line to skip is after the lookahead: the header goes at the top, as for a file without any line to skip
+    StringBuilder content = new StringBuilder("<!--\n  Copyright\n-->\n");
+    for (int i = 0; i < 10000; i++) {
+      content.append("<element/>\n");
+    }
+    content.append("<?xml version=\"1.0\"?>\n");
+    int afterProlog = content.length();
+    content.append("<root/>\n");
+    File late = Files.write(tempFolder.resolve("late.xml"), content.toString().getBytes(StandardCharsets.UTF_8)).toFile();
+    HeaderParser parser = new HeaderParser(new FileContent(late, StandardCharsets.UTF_8), bounded, new String[]{"copyright"});
+    Assertions.assertEquals(0, parser.getBeginPosition());
+    Assertions.assertTrue(parser.gotAnyHeader());
+    Assertions.assertEquals(21, parser.getEndPosition());
+
+    // the built-in definitions only look for a prolog in the first lines
+    Assertions.assertEquals(10, HeaderType.XML_STYLE.getDefinition().getSkipLineLookahead());
+    Assertions.assertEquals(0, new HeaderParser(new FileContent(late, StandardCharsets.UTF_8),
+        HeaderType.XML_STYLE.getDefinition(), new String[]{"copyright"}).getBeginPosition());
+    Assertions.assertEquals(23, new HeaderParser(new FileContent(prolog, StandardCharsets.UTF_8),
+        HeaderType.XML_STYLE.getDefinition(), new String[]{"copyright"}).getBeginPosition());
+
+    bounded.setSkipLineLookahead(0);
+    HeaderParser unbounded = new HeaderParser(new FileContent(late, StandardCharsets.UTF_8), bounded,
+        new String[]{"copyright"});
+    Assertions.assertEquals(afterProlog, unbounded.getBeginPosition());
+
+    Assertions.assertThrows(IllegalArgumentException.class, () -> bounded.setSkipLineLookahead(-1));
+  }
+
+  @Test
+  void test_keywords_across_lines(@TempDir Path tempFolder) throws Exception {
+    // the keywords are looked for in the header lines joined together
+    File file = Files.write(tempFolder.resolve("wrapped.txt"),
+        "====\nCopyright (C) My\nCompany\n====\n\ncontent\n".getBytes(StandardCharsets.UTF_8)).toFile();
+    Assertions.assertTrue(new HeaderParser(new FileContent(file, StandardCharsets.UTF_8),
+        HeaderType.TEXT.getDefinition(), new String[]{"copyright", "mycompany"}).gotAnyHeader());
+    Assertions.assertFalse(new HeaderParser(new FileContent(file, StandardCharsets.UTF_8),
+        HeaderType.TEXT.getDefinition(), new String[]{"copyright", "my company"}).gotAnyHeader());
+  }
+
+  @Test
+  void test_keywords_whatever_the_default_locale(@TempDir Path tempFolder) throws Exception {
+    File file = Files.write(tempFolder.resolve("header.txt"),
+        "====\n    Copyright (C) 2024\n====\n\ncontent\n".getBytes(StandardCharsets.UTF_8)).toFile();
+    Locale defaultLocale = Locale.getDefault();
+    try {
+      // "I" is lower cased to a dotless i in Turkish
+      Locale.setDefault(Locale.forLanguageTag("tr-TR"));
+      Assertions.assertTrue(new HeaderParser(new FileContent(file, StandardCharsets.UTF_8),
+          HeaderType.TEXT.getDefinition(), new String[]{"COPYRIGHT"}).gotAnyHeader());
+    } finally {
+      Locale.setDefault(defaultLocale);
+    }
+  }
 }
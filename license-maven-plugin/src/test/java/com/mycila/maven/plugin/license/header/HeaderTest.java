@@ -42,6 +42,19 @@ class HeaderTest {
     Assertions.assertEquals(content, header.buildForDefinition(HeaderType.ASP.getDefinition(), content.indexOf("\n") == -1));
   }
 
+  @Test
+  void testRenderedHeaderIsCachedPerDefinitionAndEol() throws Exception {
+    Header header = new Header(new HeaderSource.LiteralHeaderSource("My License\nLine 2"), null);
+    HeaderDefinition javadoc = HeaderType.JAVADOC_STYLE.getDefinition();
+    String unix = header.buildForDefinition(javadoc, true);
+    Assertions.assertEquals("/**\n * My License\n * Line 2\n */\n", unix);
+    Assertions.assertSame(unix, header.buildForDefinition(javadoc, true));
+    Assertions.assertEquals("/**\r\n * My License\r\n * Line 2\r\n */\r\n", header.buildForDefinition(javadoc, false));
+    Assertions.assertTrue(header.buildForDefinition(HeaderType.SCRIPT_STYLE.getDefinition(), true).contains("# My License\n"));
+    Assertions.assertTrue(header.isMatchForText("package a;\n" + unix + "class A {}", javadoc, true));
+    Assertions.assertFalse(header.isMatchForText("package a;\nclass A {}", javadoc, true));
+  }
+
   @Test
   void testHeaderSections() throws IOException, URISyntaxException {
 
@@ -0,0 +1,71 @@
+/**
+ * Copyright (C) 2008 Mycila (mathieu.carbou@gmail.com)
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.mycila.maven.plugin.license.util;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+class AsciiFirstLinesTest {
+
+  @TempDir
+  Path tempDir;
+
+  @Test
+  void test_same_lines_as_decoded_content() throws Exception {
+    String[] contents = {"", "a", "a  \nb \r\n  \rc", "\r\n\r\n", "line\r", "x \n y  \n z"};
+    for (String content : contents) {
+      File file = write(content.getBytes(StandardCharsets.US_ASCII));
+      for (int lineCount = 0; lineCount < 5; lineCount++) {
+        String decoded = new FileContent(file, StandardCharsets.UTF_8).getFirstLines(lineCount)
+            .replaceAll(" *\\r?\\n", "\n");
+        AsciiFirstLines lines = AsciiFirstLines.read(file, StandardCharsets.UTF_8, lineCount);
+        Assertions.assertTrue(lines.covers(lineCount));
+        Assertions.assertTrue(lines.contains(AsciiFirstLines.toAscii(decoded), lineCount), content);
+        Assertions.assertFalse(lines.contains(AsciiFirstLines.toAscii(decoded + "?"), lineCount), content);
+      }
+    }
+  }
+
+  @Test
+  void test_contains() throws Exception {
+    File file = write("first line \r\nsecond line\nthird".getBytes(StandardCharsets.US_ASCII));
+    AsciiFirstLines lines = AsciiFirstLines.read(file, StandardCharsets.ISO_8859_1, 10);
+    Assertions.assertTrue(lines.contains(AsciiFirstLines.toAscii("line\nsecond"), 2));
+    Assertions.assertFalse(lines.contains(AsciiFirstLines.toAscii("line \nsecond"), 2));
+    Assertions.assertFalse(lines.contains(AsciiFirstLines.toAscii("third"), 2));
+    Assertions.assertTrue(lines.contains(AsciiFirstLines.toAscii("third\n"), 3));
+    Assertions.assertTrue(lines.covers(100));
+  }
+
+  @Test
+  void test_decoding_needed() throws Exception {
+    File file = write("header\ncafé\n".getBytes(StandardCharsets.UTF_8));
+    Assertions.assertNotNull(AsciiFirstLines.read(file, StandardCharsets.UTF_8, 1));
+    Assertions.assertNull(AsciiFirstLines.read(file, StandardCharsets.UTF_8, 2));
+    Assertions.assertNull(AsciiFirstLines.read(file, StandardCharsets.UTF_16, 1));
+    Assertions.assertNull(AsciiFirstLines.toAscii("café"));
+  }
+
+  private File write(byte[] content) throws Exception {
+    return Files.write(Files.createTempFile(tempDir, "lines", ".txt"), content).toFile();
+  }
+}
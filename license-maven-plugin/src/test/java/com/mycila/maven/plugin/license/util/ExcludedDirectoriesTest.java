@@ -0,0 +1,75 @@
+/**
+ * Copyright (C) 2008 Mycila (mathieu.carbou@gmail.com)
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.mycila.maven.plugin.license.util;
+
+import com.mycila.maven.plugin.license.Default;
+import org.apache.maven.shared.utils.io.MatchPatterns;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+class ExcludedDirectoriesTest {
+
+  private static final String[] PATHS = {
+      "target", "a/target", "a/b/target", "target/a", "targets", "a/mytarget", "node_modules", "web/node_modules/x",
+      ".git", "sub/.git/objects", ".github", "META-INF", "META-INF/services", "src/main/resources/META-INF/services",
+      "META-INF/services/x/y", "module", "module/target", "module/a/b/target/c", "modules/target", "docs",
+      "docs/img", "docs/img/x", "doc/img", "a.b", "axb", "src", "src/main", "build/x", "x/build", "rebuild",
+      "foo", "foo/bar", "foo/baz/bar", "fooo/bar",
+  };
+
+  @Test
+  void matches_like_the_patterns() {
+    List<String> patterns = new ArrayList<>(Arrays.asList(Default.EXCLUDES));
+    patterns.addAll(Arrays.asList("module/**/target/**", "docs/img/**", "a?b/**", "fo*/bar/**", "**/foo/**/bar/**",
+        "%regex[.*src.*]", "src/main/**/*.java", "target"));
+    List<String> normalized = new ArrayList<>();
+    for (String pattern : patterns) {
+      normalized.add(pattern.replace('/', File.separatorChar));
+    }
+    ExcludedDirectories excludedDirectories = new ExcludedDirectories(normalized.toArray(new String[0]));
+    List<String> directoryPatterns = new ArrayList<>();
+    for (String pattern : normalized) {
+      if (ExcludedDirectories.isDirectoryPattern(pattern)) {
+        directoryPatterns.add(pattern);
+      }
+    }
+    Assertions.assertEquals(directoryPatterns, excludedDirectories.getPatterns());
+    MatchPatterns expected = MatchPatterns.from(directoryPatterns.toArray(new String[0]));
+
+    for (String path : PATHS) {
+      String name = path.replace('/', File.separatorChar);
+      Assertions.assertEquals(expected.matches(name, true), excludedDirectories.matches(name), path);
+    }
+  }
+
+  @Test
+  void overridden_default_exclusions_are_not_used() {
+    Selection selection = new Selection(new File("."), new String[]{"**/.git/**"}, new String[0], true, null);
+    List<String> normalized = new ArrayList<>();
+    for (String pattern : selection.getExcluded()) {
+      normalized.add(pattern.replace('/', File.separatorChar));
+    }
+    ExcludedDirectories excludedDirectories = new ExcludedDirectories(normalized.toArray(new String[0]));
+    Assertions.assertFalse(excludedDirectories.matches(".git"));
+    Assertions.assertTrue(excludedDirectories.matches("target"));
+    Assertions.assertFalse(new ExcludedDirectories(new String[0]).matches("target"));
+  }
+}
@@ -18,8 +18,20 @@ package com.mycila.maven.plugin.license.util;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Stream;
 
 class FileContentTest {
 
@@ -54,4 +66,104 @@ class FileContentTest {
     c.removeDuplicatedEmptyEndLines();
     Assertions.assertEquals("\r\n", c.getContent());
   }
+
+  @Test
+  void test_first_lines(@TempDir Path tempDir) throws Exception {
+    Path file = Files.write(tempDir.resolve("lines.txt"), "a\r\nb\rc\n\nd".getBytes(StandardCharsets.UTF_8));
+    FileContent c = new FileContent(file.toFile(), StandardCharsets.UTF_8);
+    for (int count = 0; count < 7; count++) {
+      Assertions.assertEquals(FileUtils.readFirstLines(file.toFile(), count, StandardCharsets.UTF_8), c.getFirstLines(count));
+    }
+    Assertions.assertEquals(0, c.getPosition());
+    Assertions.assertEquals("a", c.nextLine());
+
+    c = new FileContent(new File("src/test/data/compileCP/test2.txt"), Charset.defaultCharset());
+    Assertions.assertEquals("a\nb\nc\n", c.getFirstLines(3));
+  }
+
+  @Test
+  void test_lazy_loading(@TempDir Path tempDir) throws Exception {
+    StringBuilder sb = new StringBuilder("/*\n * Copyright\n */\n");
+    for (int i = 0; i < 100_000; i++) {
+      sb.append("line ").append(i).append(" é€😀\n");
+    }
+    sb.append("last\r\n");
+    Path file = Files.write(tempDir.resolve("big.txt"), sb.toString().getBytes(StandardCharsets.UTF_8));
+
+    FileContent c = new FileContent(file.toFile(), StandardCharsets.UTF_8);
+    Assertions.assertEquals("/*", c.nextLine());
+    Assertions.assertEquals(" * Copyright", c.nextLine());
+    Assertions.assertTrue(c.getLoadedLength() < sb.length());
+    c.insert(0, "header\n");
+    Assertions.assertFalse(c.isUnix());
+    Assertions.assertEquals("header\n" + sb, c.getContent());
+
+    c = new FileContent(file.toFile(), StandardCharsets.UTF_8);
+    List<String> lines = new ArrayList<>();
+    String line;
+    while ((line = c.nextLine()) != null) {
+      lines.add(line);
+    }
+    Assertions.assertEquals(Arrays.asList(sb.toString().split("\r?\n")), lines);
+    Assertions.assertTrue(c.endReached());
+  }
+
+  @Test
+  void test_line_views(@TempDir Path tempDir) throws Exception {
+    Path file = Files.write(tempDir.resolve("lines.txt"), "  Copyright\r\n\nlast".getBytes(StandardCharsets.UTF_8));
+    FileContent c = new FileContent(file.toFile(), StandardCharsets.UTF_8);
+    CharSequence first = c.nextLineView();
+    Assertions.assertEquals("  Copyright", first.toString());
+    Assertions.assertEquals("Copy", first.subSequence(2, 6).toString());
+    Assertions.assertTrue(StringUtils.startsWith(first, "  C"));
+    Assertions.assertTrue(StringUtils.containsLowerCase(first, "copyright"));
+    Assertions.assertFalse(StringUtils.isBlank(first));
+    Assertions.assertEquals(13, c.getPosition());
+
+    // the same view shows the next line
+    Assertions.assertSame(first, c.nextLineView());
+    Assertions.assertTrue(StringUtils.isBlank(first));
+    Assertions.assertEquals(0, first.length());
+    Assertions.assertEquals("last", c.nextLineView().toString());
+    Assertions.assertNull(c.nextLineView());
+  }
+
+  @Test
+  void test_write_to_copies_the_unread_bytes(@TempDir Path tempDir) throws Exception {
+    ByteArrayOutputStream original = new ByteArrayOutputStream();
+    original.write("/*\n * Copyright\n */\n".getBytes(StandardCharsets.UTF_8));
+    for (int i = 0; i < 20000; i++) {
+      original.write(("line " + i + " café\n").getBytes(StandardCharsets.UTF_8));
+    }
+    // malformed in UTF-8: decoding and encoding it again would replace it
+    original.write(new byte[]{(byte) 0xFF, '\r', '\n'});
+    Path file = Files.write(tempDir.resolve("big.txt"), original.toByteArray());
+
+    FileContent c = new FileContent(file.toFile(), StandardCharsets.UTF_8);
+    c.nextLine();
+    c.nextLine();
+    c.nextLine();
+    c.delete(0, c.getPosition());
+    Assertions.assertFalse(c.isUnix());
+    c.insert(0, "// header\n");
+    boolean posix = Files.getFileAttributeView(file, PosixFileAttributeView.class) != null;
+    if (posix) {
+      Files.setPosixFilePermissions(file, PosixFilePermissions.fromString("rwxr-x---"));
+    }
+    c.writeTo(file.toFile(), StandardCharsets.UTF_8);
+    Assertions.assertTrue(c.getLoadedLength() < original.size() / 2);
+
+    byte[] expected = original.toByteArray();
+    int headerLength = "/*\n * Copyright\n */\n".length();
+    ByteArrayOutputStream rewritten = new ByteArrayOutputStream();
+    rewritten.write("// header\n".getBytes(StandardCharsets.UTF_8));
+    rewritten.write(expected, headerLength, expected.length - headerLength);
+    Assertions.assertArrayEquals(rewritten.toByteArray(), Files.readAllBytes(file));
+    if (posix) {
+      Assertions.assertEquals("rwxr-x---", PosixFilePermissions.toString(Files.getPosixFilePermissions(file)));
+    }
+    try (Stream<Path> files = Files.list(tempDir)) {
+      Assertions.assertEquals(1, files.count());
+    }
+  }
 }
@@ -25,6 +25,7 @@ import org.junit.jupiter.api.Test;
 import java.io.File;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.nio.file.Files;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
@@ -82,6 +83,120 @@ class SelectionTest {
     Assertions.assertEquals(0, selection.getScanner().getExcludedFiles().length, debugMessage);
   }
 
+  @Test
+  void test_selection_among_candidates() throws IOException {
+    File root = createAFakeProject(log);
+    Selection selection = new Selection(root,
+        new String[]{"**/*.txt"},
+        new String[]{"target/**", "module/**/target/**"}, true,
+        log);
+
+    List<String> selected = asList(selection.getSelectedFiles(asList(
+        "module/sub/subsub/target/foo/not-ignored.txt",
+        "module/src/main/java/not-ignored.txt",
+        "included.txt",
+        "target/ignored.txt",
+        "deleted.txt",
+        "module",
+        "module/sub/subsub/src/main/java/not-ignored.txt",
+        ".git/config.txt")));
+    List<String> scanned = new ArrayList<>(asList(selection.getSelectedFiles()));
+    Collections.sort(scanned);
+    Assertions.assertEquals(scanned, selected);
+  }
+
+  @Test
+  void test_parallel_scan_selects_same_files() throws IOException {
+    File root = createAFakeProject(log);
+    for (String file : asList("README.md", "pom.xml", "src/main/java/A.java", "src/main/java/b/B.java",
+        "src/main/resources/a b.properties", "src/test/resources/x/y/z/deep.txt", "Makefile", ".gitignore",
+        ".git/config", ".git/objects/ab/cdef", ".idea/workspace.xml", "node_modules/lib/index.js",
+        "module/pom.xml", "module/README.md", "module/src/main/java/C.java", "module/.svn/entries",
+        "module/target/classes/C.class", "docs/index.md", "docs/img/logo.png")) {
+      touch(new File(root, file), log);
+    }
+    Assertions.assertTrue(new File(root, "empty/dir").mkdirs());
+    try {
+      Files.createSymbolicLink(root.toPath().resolve("linked"), root.toPath().resolve("src"));
+      Files.createSymbolicLink(root.toPath().resolve("broken.txt"), root.toPath().resolve("missing.txt"));
+    } catch (IOException | UnsupportedOperationException e) {
+      // symbolic links not supported: the other cases are still compared
+    }
+
+    String[][][] configurations = {
+        {{}, {}},
+        {{"**/*.txt"}, {"target/**", "module/**/target/**"}},
+        {{"src/**", "module/src/"}, {"**/*.md"}},
+        {{"**/.git/**", "**/*.java"}, {}},
+        {{"%regex[.*\\.java]"}, {"module/**"}},
+        {{"**/target/**", "docs/**"}, {"module/**", "docs/img/"}},
+        {{"*", "*/*.xml"}, {"linked/**"}},
+    };
+    for (String[][] configuration : configurations) {
+      for (boolean useDefaultExcludes : new boolean[]{true, false}) {
+        String[] plexus = new Selection(root, configuration[0], configuration[1], useDefaultExcludes, log)
+            .getSelectedFiles();
+        String[] parallel = new Selection(root, configuration[0], configuration[1], useDefaultExcludes, 4, log)
+            .getSelectedFiles();
+        Arrays.sort(plexus);
+        String message = Arrays.deepToString(configuration) + ", useDefaultExcludes=" + useDefaultExcludes;
+        Assertions.assertTrue(plexus.length > 0 || configuration[0].length > 0, message);
+        Assertions.assertEquals(asList(plexus), asList(parallel), message);
+      }
+    }
+  }
+
+  @Test
+  void test_default_excluded_directories_are_not_visited() throws IOException {
+    File root = createAFakeProject(log);
+    for (String file : asList("src/A.java", "node_modules/lib/index.js", ".git/config", "module/build",
+        "module/.idea/workspace.xml", "META-INF/services/Foo")) {
+      touch(new File(root, file), log);
+    }
+    String[][] includes = {{}, {"**/.git/**", "**"}, {"**/build"}};
+    for (String[] include : includes) {
+      Selection selection = new Selection(root, include, new String[]{"module/**/target/**"}, true, log);
+      DirectoryScanner expected = new DirectoryScanner();
+      expected.setBasedir(root);
+      expected.setIncludes(selection.getIncluded());
+      expected.setExcludes(selection.getExcluded());
+      expected.scan();
+      List<String> files = new ArrayList<>(asList(expected.getIncludedFiles()));
+      Collections.sort(files);
+
+      List<String> plexus = new ArrayList<>(asList(selection.getSelectedFiles()));
+      Collections.sort(plexus);
+      Assertions.assertEquals(files, plexus, asList(include).toString());
+      Assertions.assertEquals(files, asList(new Selection(root, include, new String[]{"module/**/target/**"}, true, 2,
+          log).getSelectedFiles()), asList(include).toString());
+      for (String excluded : selection.getScanner().getExcludedFiles()) {
+        Assertions.assertFalse(excluded.startsWith("node_modules"), excluded);
+      }
+    }
+    // the overridden default exclusion does not skip the directory
+    Assertions.assertTrue(asList(new Selection(root, includes[1], new String[0], true, log).getSelectedFiles())
+        .contains(".git" + File.separator + "config"));
+  }
+
+  @Test
+  void test_scan_stops_when_consumer_returns_false() throws IOException {
+    File root = createAFakeProject(log);
+    for (int scanThreads : new int[]{0, 2}) {
+      Selection selection = new Selection(root, new String[0], new String[0], false, scanThreads, log);
+      List<String> seen = Collections.synchronizedList(new ArrayList<>());
+      Assertions.assertFalse(selection.forEachSelectedFile(file -> seen.add(file) && false));
+      Assertions.assertEquals(1, seen.size());
+      Assertions.assertTrue(selection.forEachSelectedFile(file -> true));
+    }
+  }
+
+  @Test
+  void test_parallel_scan_of_missing_basedir() {
+    Selection selection = new Selection(new File("target/missing_" + UUID.randomUUID()), new String[0], new String[0],
+        false, 2, log);
+    Assertions.assertThrows(IllegalStateException.class, selection::getSelectedFiles);
+  }
+
   private String buildDebugMessage(DirectoryScanner scanner) {
     return "excludedDirs=" + asList(scanner.getExcludedDirectories()) + ",\n" +
         "excludedFiles=" + asList(scanner.getExcludedFiles()) + ",\n" +
@@ -110,6 +225,27 @@ class SelectionTest {
     Assertions.assertEquals(asList("included.txt", "module" + File.separator + "src" + File.separator + "main" + File.separator + "java" + File.separator + "not-ignored.txt", "module" + File.separator + "sub" + File.separator + "subsub" + File.separator + "src" + File.separator + "main" + File.separator + "java" + File.separator + "not-ignored.txt"), selected, debugMessage);
   }
 
+  @Test
+  void test_union_selects_the_files_of_each_selection() throws IOException {
+    File root = createAFakeProject(log);
+    Selection module = new Selection(root, new String[]{"module/**"}, new String[]{"**/target/**"}, true, log);
+    Selection topLevel = new Selection(root, new String[]{"*.txt"}, new String[]{"**/target/**"}, true, log);
+    Selection union = Selection.union(asList(module, topLevel), 0, log);
+
+    List<String> expected = new ArrayList<>(asList(module.getSelectedFiles()));
+    expected.addAll(asList(topLevel.getSelectedFiles()));
+    List<String> selected = new ArrayList<>(asList(union.getSelectedFiles()));
+    Collections.sort(expected);
+    Collections.sort(selected);
+    Assertions.assertEquals(expected, selected);
+    Assertions.assertEquals(3, selected.size());
+
+    String included = "included.txt";
+    Assertions.assertTrue(topLevel.isSelected(included));
+    Assertions.assertFalse(module.isSelected(included));
+    Assertions.assertFalse(union.isSelected("target" + File.separator + "ignored.txt"));
+  }
+
   private File createAFakeProject(Log log) throws IOException {
     File temp = new File("target/workdir_" + UUID.randomUUID().toString());
     touch(new File(temp, "included.txt"), log);